@@ -0,0 +1,41 @@
+package org.lotr.kata;
+
+// Levels in promotion order, with the names used by CharacterServiceInterface. OTHER stands for any other name a
+// service may use: it gets no level modifier and is never promoted.
+public enum CharacterLevel {
+    NOVICE("Novice"), EXPERIENCED("Experienced"), VETERAN("Veteran"), LEGENDARY("Legendary"), OTHER(null);
+
+    private static final CharacterLevel[] LEVELS = values();
+
+    private final String label;
+
+    CharacterLevel(String label) {
+        this.label = label;
+    }
+
+    // Null for OTHER
+    public String getLabel() {
+        return label;
+    }
+
+    // Legendary is the highest level, no promotion possible
+    public CharacterLevel next() {
+        return this == LEGENDARY || this == OTHER ? this : LEVELS[ordinal() + 1];
+    }
+
+    public static CharacterLevel of(String label) {
+        CharacterLevel level = orOther(label);
+        if (level == OTHER) {
+            throw new IllegalArgumentException("Unknown level: " + label);
+        }
+        return level;
+    }
+
+    // For levels read from services that may use their own names
+    public static CharacterLevel orOther(String label) {
+        for (CharacterLevel level : LEVELS) {
+            if (level.label != null && level.label.equals(label)) return level;
+        }
+        return OTHER;
+    }
+}
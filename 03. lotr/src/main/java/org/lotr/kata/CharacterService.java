@@ -1,23 +1,27 @@
 package org.lotr.kata;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CharacterService implements CharacterServiceInterface {
     private static CharacterService instance;
     private Map<String, Character> characters = new HashMap<>();
+    // Same characters, by id in Characters.CHARACTER_IDS
+    private Character[] charactersById = new Character[16];
     
-    private CharacterService() {
+    CharacterService() {
         // Initialize with some default characters
-        characters.put("Frodo", new Character("Frodo", "Hobbit", "Experienced", true));
-        characters.put("Gandalf", new Character("Gandalf", "Wizard", "Legendary", true));
-        characters.put("Aragorn", new Character("Aragorn", "Human", "Veteran", true));
-        characters.put("Legolas", new Character("Legolas", "Elf", "Veteran", true));
-        characters.put("Gimli", new Character("Gimli", "Dwarf", "Veteran", true));
-        characters.put("Boromir", new Character("Boromir", "Human", "Experienced", true));
-        characters.put("Sam", new Character("Sam", "Hobbit", "Novice", true));
-        characters.put("Merry", new Character("Merry", "Hobbit", "Novice", true));
-        characters.put("Pippin", new Character("Pippin", "Hobbit", "Novice", true));
+        addCharacter("Frodo", "Hobbit", "Experienced");
+        addCharacter("Gandalf", "Wizard", "Legendary");
+        addCharacter("Aragorn", "Human", "Veteran");
+        addCharacter("Legolas", "Elf", "Veteran");
+        addCharacter("Gimli", "Dwarf", "Veteran");
+        addCharacter("Boromir", "Human", "Experienced");
+        addCharacter("Sam", "Hobbit", "Novice");
+        addCharacter("Merry", "Hobbit", "Novice");
+        addCharacter("Pippin", "Hobbit", "Novice");
     }
     
     public static CharacterService getInstance() {
@@ -28,64 +32,68 @@ public class CharacterService implements CharacterServiceInterface {
     }
     
     public void addCharacter(String name, String type, String level) {
-        characters.put(name, new Character(name, type, level, true));
+        Character character = new Character(name, type, CharacterLevel.of(level), true);
+        characters.put(name, character);
+        
+        int id = idOf(name);
+        if (id >= charactersById.length) {
+            charactersById = Arrays.copyOf(charactersById, Math.max(id + 1, 2 * charactersById.length));
+        }
+        charactersById[id] = character;
     }
     
     public boolean isCharacterAvailable(String name) {
         return characters.containsKey(name) && characters.get(name).isAvailable();
     }
     
+    public boolean isCharacterAvailable(int id) {
+        return id >= 0 && id < charactersById.length && charactersById[id] != null && charactersById[id].isAvailable();
+    }
+    
     public String getCharacterType(String name) {
-        if (!characters.containsKey(name)) {
-            throw new IllegalArgumentException("Character not found: " + name);
-        }
-        return characters.get(name).getType();
+        return characterNamed(name).getType();
+    }
+    
+    public CharacterType getCharacterType(int id) {
+        return characterWithId(id).getKind();
     }
     
     public String getCharacterLevel(String name) {
-        if (!characters.containsKey(name)) {
-            throw new IllegalArgumentException("Character not found: " + name);
-        }
-        return characters.get(name).getLevel();
+        return characterNamed(name).getLevel().getLabel();
+    }
+    
+    public CharacterLevel getCharacterLevel(int id) {
+        return characterWithId(id).getLevel();
     }
     
     public void setCharacterAvailability(String name, boolean available) {
-        if (!characters.containsKey(name)) {
-            throw new IllegalArgumentException("Character not found: " + name);
-        }
-        characters.get(name).setAvailable(available);
+        characterNamed(name).setAvailable(available);
     }
     
     public void promoteCharacter(String name) {
-        if (!characters.containsKey(name)) {
-            throw new IllegalArgumentException("Character not found: " + name);
-        }
-        
-        Character character = characters.get(name);
-        String currentLevel = character.getLevel();
-        
-        if (currentLevel.equals("Novice")) {
-            character.setLevel("Experienced");
-        } else if (currentLevel.equals("Experienced")) {
-            character.setLevel("Veteran");
-        } else if (currentLevel.equals("Veteran")) {
-            character.setLevel("Legendary");
-        }
-        // Legendary is the highest level, no promotion possible
+        promote(characterNamed(name));
+    }
+    
+    // Legendary is the highest level, no promotion possible
+    private static void promote(Character character) {
+        character.setLevel(character.getLevel().next());
     }
     
     public void completeQuest(String name, boolean success) {
-        if (!characters.containsKey(name)) {
-            throw new IllegalArgumentException("Character not found: " + name);
-        }
-        
+        complete(characterNamed(name), success);
+    }
+    
+    public void completeQuest(int id, boolean success) {
+        complete(characterWithId(id), success);
+    }
+    
+    private static void complete(Character character, boolean success) {
         // 25% chance to promote a character if the quest was successful
-        if (success && Math.random() < 0.25) {
-            promoteCharacter(name);
+        if (success && ThreadLocalRandom.current().nextDouble() < 0.25) {
+            promote(character);
         }
         
         // Update quest count
-        Character character = characters.get(name);
         if (success) {
             character.setSuccessfulQuests(character.getSuccessfulQuests() + 1);
         } else {
@@ -93,17 +101,34 @@ public class CharacterService implements CharacterServiceInterface {
         }
     }
     
+    private Character characterNamed(String name) {
+        Character character = characters.get(name);
+        if (character == null) {
+            throw new IllegalArgumentException("Character not found: " + name);
+        }
+        return character;
+    }
+    
+    private Character characterWithId(int id) {
+        if (id < 0 || id >= charactersById.length || charactersById[id] == null) {
+            throw new IllegalArgumentException("Character not found: " + id);
+        }
+        return charactersById[id];
+    }
+    
     private static class Character {
         private String name;
         private String type;
-        private String level;
+        private CharacterType kind;
+        private CharacterLevel level;
         private boolean available;
         private int successfulQuests;
         private int failedQuests;
         
-        public Character(String name, String type, String level, boolean available) {
+        public Character(String name, String type, CharacterLevel level, boolean available) {
             this.name = name;
             this.type = type;
+            this.kind = CharacterType.of(type);
             this.level = level;
             this.available = available;
             this.successfulQuests = 0;
@@ -118,11 +143,15 @@ public class CharacterService implements CharacterServiceInterface {
             return type;
         }
         
-        public String getLevel() {
+        public CharacterType getKind() {
+            return kind;
+        }
+        
+        public CharacterLevel getLevel() {
             return level;
         }
         
-        public void setLevel(String level) {
+        public void setLevel(CharacterLevel level) {
             this.level = level;
         }
         
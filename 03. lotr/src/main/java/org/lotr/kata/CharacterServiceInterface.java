@@ -5,4 +5,30 @@ public interface CharacterServiceInterface {
         String getCharacterType(String name);
         String getCharacterLevel(String name);
         void completeQuest(String name, boolean success);
-    }
\ No newline at end of file
+
+        // Id-based API: names are interned once, then every call is an array read in the services that support it.
+        // The defaults go through the names, so that any service can be called by id.
+        default int idOf(String name) {
+            return Characters.CHARACTER_IDS.idOf(name);
+        }
+
+        default String nameOf(int id) {
+            return Characters.CHARACTER_IDS.nameOf(id);
+        }
+
+        default boolean isCharacterAvailable(int id) {
+            return isCharacterAvailable(nameOf(id));
+        }
+
+        default CharacterType getCharacterType(int id) {
+            return CharacterType.of(getCharacterType(nameOf(id)));
+        }
+
+        default CharacterLevel getCharacterLevel(int id) {
+            return CharacterLevel.orOther(getCharacterLevel(nameOf(id)));
+        }
+
+        default void completeQuest(int id, boolean success) {
+            completeQuest(nameOf(id), success);
+        }
+    }
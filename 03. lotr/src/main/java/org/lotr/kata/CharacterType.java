@@ -0,0 +1,26 @@
+package org.lotr.kata;
+
+// Character types known to the quest rules. Any other type is OTHER: it gets no type bonus and joins no alliance.
+public enum CharacterType {
+    HOBBIT(Characters.HOBBIT), HUMAN(Characters.HUMAN), DWARF(Characters.DWARF), ELF(Characters.ELF), WIZARD(Characters.WIZARD), OTHER(null);
+
+    private static final CharacterType[] TYPES = values();
+
+    private final String label;
+
+    CharacterType(String label) {
+        this.label = label;
+    }
+
+    // Null for OTHER
+    public String getLabel() {
+        return label;
+    }
+
+    public static CharacterType of(String label) {
+        for (CharacterType type : TYPES) {
+            if (type.label != null && type.label.equals(label)) return type;
+        }
+        return OTHER;
+    }
+}
@@ -45,5 +45,8 @@ public class Characters {
             )
     );
 
+    // Dense ids of character names, shared by every character service so that an id means the same everywhere
+    public static final SymbolTable CHARACTER_IDS = new SymbolTable();
+
     static final Map<QuestType, Integer> QUEST_BASE_REWARDS = new EnumMap<>(QuestType.class);
 }
@@ -0,0 +1,177 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Struct-of-arrays layout of MiddleEarthItem: one primitive column per field, so the daily tick and
+// price computations run as tight loops over contiguous memory instead of chasing one object per item.
+// Items are appended as they come, there is no merging of identical items like InventoryManager.addItem does.
+public class ColumnarInventory {
+    static final byte RING = 1;
+    static final byte ENCHANTED = 1 << 1;
+    static final byte GOOD = 1 << 2;
+    static final byte MITHRIL = 1 << 3;
+    static final byte CURSED = 1 << 4;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final ItemOrigin[] ORIGINS = ItemOrigin.values();
+    private static final byte MORDOR = (byte) ItemOrigin.MORDOR.ordinal();
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    private int[] nameId = new int[INITIAL_CAPACITY];
+    private int[] quantity = new int[INITIAL_CAPACITY];
+    private int[] quality = new int[INITIAL_CAPACITY];
+    private int[] price = new int[INITIAL_CAPACITY];
+    private int[] magicLevel = new int[INITIAL_CAPACITY];
+    private byte[] origin = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public void add(MiddleEarthItem item) {
+        if (size == quantity.length) {
+            grow();
+        }
+
+        nameId[size] = nameIds.computeIfAbsent(item.n, name -> {
+            names.add(name);
+            return names.size() - 1;
+        });
+        quantity[size] = item.q;
+        quality[size] = item.qual;
+        price[size] = item.p;
+        magicLevel[size] = item.m;
+        origin[size] = (byte) item.o.ordinal();
+        flags[size] = flagsOf(item);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Same rules as MiddleEarthItem.updateQuality followed by the degraded items removal of InventoryManager.updateAllItems
+    public void updateAllItems() {
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+            int f = flags[i];
+            int q = quality[i];
+
+            if (q > 0 && (f & GOOD) == 0) {
+                q = q - 1;
+            }
+            if ((f & GOOD) != 0 && q < 50) {
+                q = q + 1;
+            }
+            if ((f & CURSED) != 0) {
+                q = Math.max(q - 2, 0);
+            }
+            if ((f & (ENCHANTED | RING)) == RING && q > 80) {
+                q = q - 1;
+            }
+            if ((f & MITHRIL) != 0 && q < 90) {
+                q = q + 1;
+            }
+            if (origin[i] == MORDOR && (f & RING) == 0) {
+                q = Math.max(q - 2, 0);
+            }
+
+            if (q <= 0 && (f & (ENCHANTED | GOOD | MITHRIL)) == 0) {
+                continue;
+            }
+
+            if (kept != i) {
+                nameId[kept] = nameId[i];
+                quantity[kept] = quantity[i];
+                price[kept] = price[i];
+                origin[kept] = origin[i];
+                flags[kept] = flags[i];
+            }
+            quality[kept] = q;
+            magicLevel[kept] = magicLevel[i] > 0 ? magicLevel[i] - 1 : magicLevel[i];
+            kept++;
+        }
+
+        size = kept;
+    }
+
+    // Same rules as MiddleEarthItem.getFinalPrice, for every item at once
+    public int[] getFinalPrices(boolean isHaggling, String dayOfWeek) {
+        boolean weekend = dayOfWeek.equals("Sunday") || dayOfWeek.equals("Saturday");
+        boolean monday = dayOfWeek.equals("Monday");
+        boolean mithrilDay = dayOfWeek.equals("Thursday") || dayOfWeek.equals("Friday");
+        boolean wednesday = dayOfWeek.equals("Wednesday");
+
+        int[] finalPrices = new int[size];
+        for (int i = 0; i < size; i++) {
+            int f = flags[i];
+            int pr = isHaggling && (f & RING) == 0 ? (int) (price[i] * 0.9) : price[i];
+
+            if (weekend) {
+                pr = (int) (pr * 1.1);
+            }
+            if (monday && (f & CURSED) != 0) {
+                pr = (int) (pr * 0.5);
+            }
+            if (mithrilDay && (f & MITHRIL) != 0) {
+                pr = (int) (pr * 1.15);
+            }
+            if (wednesday && (f & GOOD) != 0) {
+                pr = (int) (pr * 0.95);
+            }
+
+            finalPrices[i] = pr;
+        }
+        return finalPrices;
+    }
+
+    public MiddleEarthItem getItem(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No item at index " + index);
+        }
+
+        MiddleEarthItem item = new MiddleEarthItem(names.get(nameId[index]), quantity[index], quality[index], ORIGINS[origin[index]]);
+        item.p = price[index];
+        item.m = magicLevel[index];
+        item.isRing = (flags[index] & RING) != 0;
+        item.isE = (flags[index] & ENCHANTED) != 0;
+        item.isGood = (flags[index] & GOOD) != 0;
+        item.isMithril = (flags[index] & MITHRIL) != 0;
+        item.isC = (flags[index] & CURSED) != 0;
+        return item;
+    }
+
+    public List<MiddleEarthItem> getAllItems() {
+        List<MiddleEarthItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(getItem(i));
+        }
+        return items;
+    }
+
+    private static byte flagsOf(MiddleEarthItem item) {
+        int f = 0;
+        if (item.isRing) f |= RING;
+        if (item.isE) f |= ENCHANTED;
+        if (item.isGood) f |= GOOD;
+        if (item.isMithril) f |= MITHRIL;
+        if (item.isC) f |= CURSED;
+        return (byte) f;
+    }
+
+    private void grow() {
+        int capacity = quantity.length * 2;
+        nameId = Arrays.copyOf(nameId, capacity);
+        quantity = Arrays.copyOf(quantity, capacity);
+        quality = Arrays.copyOf(quality, capacity);
+        price = Arrays.copyOf(price, capacity);
+        magicLevel = Arrays.copyOf(magicLevel, capacity);
+        origin = Arrays.copyOf(origin, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
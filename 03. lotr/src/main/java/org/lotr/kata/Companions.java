@@ -3,19 +3,34 @@ package org.lotr.kata;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.lotr.kata.Characters.*;
-
 public class Companions extends ArrayList<String> {
     private final CharacterServiceInterface characterService;
+    // Same companions, by character id
+    private final int[] ids;
 
-    private Companions(CharacterServiceInterface characterService, List<String> companions) {
+    private Companions(CharacterServiceInterface characterService, List<String> companions, int[] ids) {
         super(companions);
         this.characterService = characterService;
+        this.ids = ids;
     }
 
     public static Companions from(CharacterServiceInterface characterService, String characterName, List<String> companions) {
         verifyCharacterAndCompanionsAreAvailable(characterService, characterName, companions);
-        return new Companions(characterService, companions);
+        return new Companions(characterService, companions, companions.stream().mapToInt(characterService::idOf).toArray());
+    }
+
+    public static Companions from(CharacterServiceInterface characterService, int characterId, int[] companionIds) {
+        if (!characterService.isCharacterAvailable(characterId)) {
+            throw new IllegalStateException("Character " + characterService.nameOf(characterId) + " is not available for quests.");
+        }
+        List<String> companions = new ArrayList<>(companionIds.length);
+        for (int id : companionIds) {
+            if (!characterService.isCharacterAvailable(id)) {
+                throw new IllegalStateException("Companion " + characterService.nameOf(id) + " is not available for quests.");
+            }
+            companions.add(characterService.nameOf(id));
+        }
+        return new Companions(characterService, companions, companionIds.clone());
     }
 
     private static void verifyCharacterAndCompanionsAreAvailable(CharacterServiceInterface characterService, String characterName, List<String> companions) {
@@ -35,21 +50,14 @@ public class Companions extends ArrayList<String> {
                 .toList();
     }
 
-    boolean containsElfAndDwarf() {
-        return containsSpecialCombination(ELF, DWARF);
-    }
-
     public boolean containsHobbitAndWizard() {
-        return containsSpecialCombination(HOBBIT, WIZARD);
+        int hobbitAndWizard = QuestOdds.HOBBIT_COMPANION | QuestOdds.WIZARD_COMPANION;
+        return (getCompanionTypes() & hobbitAndWizard) == hobbitAndWizard;
     }
 
-    private boolean containsSpecialCombination(String type1, String type2) {
-        return contains(type1) && contains(type2);
-    }
-
-    private boolean contains(String targetType) {
-        return this.stream()
-                .anyMatch(companion -> characterService.getCharacterType(companion).equals(targetType));
+    // Alliance types among the companions, as a mask of QuestOdds *_COMPANION bits
+    int getCompanionTypes() {
+        return QuestOdds.companionTypes(characterService, ids);
     }
 
     public double getBaseChance() {
@@ -57,6 +65,8 @@ public class Companions extends ArrayList<String> {
     }
 
     void completeQuest(boolean success) {
-        forEach(companion -> characterService.completeQuest(companion, success));
+        for (int id : ids) {
+            characterService.completeQuest(id, success);
+        }
     }
 }
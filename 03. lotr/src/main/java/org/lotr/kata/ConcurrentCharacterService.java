@@ -0,0 +1,142 @@
+package org.lotr.kata;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Characters shared by several quest workers. The whole mutable state of a character (level, availability and quest
+// counters) is packed in one AtomicLong, so every update is a single compare-and-set: no lock, no lost increment, and
+// a completed quest promotes at most once.
+public class ConcurrentCharacterService implements CharacterServiceInterface {
+    // Bits 0-1: level, bit 2: available, bits 3-32: successful quests, bits 33-62: failed quests
+    private static final int LEVEL_MASK = 0b11;
+    private static final long AVAILABLE = 1L << 2;
+    private static final int SUCCESSFUL_SHIFT = 3;
+    private static final int FAILED_SHIFT = 33;
+    private static final long COUNTER_MASK = (1L << 30) - 1;
+    private static final double PROMOTION_CHANCE = 0.25;
+    private static final CharacterLevel[] LEVELS = CharacterLevel.values();
+
+    private final Map<String, Character> characters = new ConcurrentHashMap<>();
+    // Same characters, by id in Characters.CHARACTER_IDS; replaced as a whole when a character is added
+    private volatile Character[] charactersById = new Character[16];
+
+    public ConcurrentCharacterService() {
+        // Initialize with some default characters
+        addCharacter("Frodo", "Hobbit", "Experienced");
+        addCharacter("Gandalf", "Wizard", "Legendary");
+        addCharacter("Aragorn", "Human", "Veteran");
+        addCharacter("Legolas", "Elf", "Veteran");
+        addCharacter("Gimli", "Dwarf", "Veteran");
+        addCharacter("Boromir", "Human", "Experienced");
+        addCharacter("Sam", "Hobbit", "Novice");
+        addCharacter("Merry", "Hobbit", "Novice");
+        addCharacter("Pippin", "Hobbit", "Novice");
+    }
+
+    public synchronized void addCharacter(String name, String type, String level) {
+        Character character = new Character(name, type, CharacterType.of(type), new AtomicLong(CharacterLevel.of(level).ordinal() | AVAILABLE));
+        int id = idOf(name);
+        Character[] byId = Arrays.copyOf(charactersById, Math.max(id + 1, charactersById.length));
+        byId[id] = character;
+        characters.put(name, character);
+        charactersById = byId;
+    }
+
+    public boolean isCharacterAvailable(String name) {
+        Character character = characters.get(name);
+        return character != null && (character.state.get() & AVAILABLE) != 0;
+    }
+
+    public boolean isCharacterAvailable(int id) {
+        Character[] byId = charactersById;
+        return id >= 0 && id < byId.length && byId[id] != null && (byId[id].state.get() & AVAILABLE) != 0;
+    }
+
+    public String getCharacterType(String name) {
+        return characterOf(name).type;
+    }
+
+    public CharacterType getCharacterType(int id) {
+        return characterOf(id).kind;
+    }
+
+    public String getCharacterLevel(String name) {
+        return levelOf(characterOf(name).state.get()).getLabel();
+    }
+
+    public CharacterLevel getCharacterLevel(int id) {
+        return levelOf(characterOf(id).state.get());
+    }
+
+    public int getSuccessfulQuests(String name) {
+        return (int) (characterOf(name).state.get() >>> SUCCESSFUL_SHIFT & COUNTER_MASK);
+    }
+
+    public int getFailedQuests(String name) {
+        return (int) (characterOf(name).state.get() >>> FAILED_SHIFT & COUNTER_MASK);
+    }
+
+    public void setCharacterAvailability(String name, boolean available) {
+        characterOf(name).state.getAndUpdate(state -> available ? state | AVAILABLE : state & ~AVAILABLE);
+    }
+
+    public void promoteCharacter(String name) {
+        characterOf(name).state.getAndUpdate(ConcurrentCharacterService::promoted);
+    }
+
+    public void completeQuest(String name, boolean success) {
+        complete(characterOf(name), success);
+    }
+
+    public void completeQuest(int id, boolean success) {
+        complete(characterOf(id), success);
+    }
+
+    private static void complete(Character character, boolean success) {
+        AtomicLong state = character.state;
+
+        // 25% chance to promote a character if the quest was successful, rolled once whatever the retries
+        boolean promote = success && ThreadLocalRandom.current().nextDouble() < PROMOTION_CHANCE;
+        int shift = success ? SUCCESSFUL_SHIFT : FAILED_SHIFT;
+        long current;
+        long updated;
+        do {
+            current = state.get();
+            if ((current >>> shift & COUNTER_MASK) == COUNTER_MASK) {
+                throw new IllegalStateException("Too many quests for " + character.name);
+            }
+            updated = current + (1L << shift);
+            if (promote) updated = promoted(updated);
+        } while (!state.compareAndSet(current, updated));
+    }
+
+    private Character characterOf(String name) {
+        Character character = characters.get(name);
+        if (character == null) {
+            throw new IllegalArgumentException("Character not found: " + name);
+        }
+        return character;
+    }
+
+    private Character characterOf(int id) {
+        Character[] byId = charactersById;
+        if (id < 0 || id >= byId.length || byId[id] == null) {
+            throw new IllegalArgumentException("Character not found: " + id);
+        }
+        return byId[id];
+    }
+
+    private static CharacterLevel levelOf(long state) {
+        return LEVELS[(int) (state & LEVEL_MASK)];
+    }
+
+    private static long promoted(long state) {
+        return state & ~LEVEL_MASK | levelOf(state).next().ordinal();
+    }
+
+    private record Character(String name, String type, CharacterType kind, AtomicLong state) {
+    }
+}
@@ -0,0 +1,278 @@
+package org.lotr.kata;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+// Inventory shared by several shop threads. Items with the same name always land on the same lock stripe, so
+// adds, removals and sales of one name are linearizable while other names proceed in parallel. Whole-inventory
+// mutations (daily tick, war repricing) take every stripe, and so do listings, totals and reports, so that they never
+// see a sale or a day half done.
+public class ConcurrentInventoryManager implements InventoryManagerInterface {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final Map<String, List<Slot>> itemsByName = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, MiddleEarthItem> items = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> sales = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger ringCount = new AtomicInteger();
+    private final DailyTick dailyTick;
+    private volatile boolean isWarTime = false;
+
+    public ConcurrentInventoryManager() {
+        this(DEFAULT_STRIPES, new DailyTick());
+    }
+
+    public ConcurrentInventoryManager(int stripeCount, DailyTick dailyTick) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripeCount);
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.dailyTick = dailyTick;
+    }
+
+    public void addItem(MiddleEarthItem i) {
+        if (i == null) return;
+
+        ReentrantLock lock = stripeOf(i.n);
+        lock.lock();
+        try {
+            List<Slot> sameName = itemsByName.computeIfAbsent(i.n, name -> new ArrayList<>());
+            for (Slot slot : sameName) {
+                if (slot.item.o == i.o && slot.item.qual == i.qual) {
+                    slot.item.q += i.q;
+                    return;
+                }
+            }
+
+            Slot slot = new Slot(sequence.incrementAndGet(), i);
+            sameName.add(slot);
+            items.put(slot.sequence, i);
+            if (i.isRing) ringCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeItem(String name, int quantity) {
+        ReentrantLock lock = stripeOf(name);
+        lock.lock();
+        try {
+            List<Slot> sameName = itemsByName.get(name);
+            if (sameName == null) return;
+
+            Slot slot = sameName.getFirst();
+            slot.item.q -= quantity;
+            if (slot.item.q <= 0) {
+                unindex(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, String dayOfWeek) {
+        sellItem(name, quantity, item -> item.getFinalPrice(getPrice(item), isHaggling, dayOfWeek));
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, DayOfWeek dayOfWeek) {
+        sellItem(name, quantity, item -> getFinalPrice(item, isHaggling, dayOfWeek));
+    }
+
+    private void sellItem(String name, int quantity, ToIntFunction<MiddleEarthItem> finalPrice) {
+        ReentrantLock lock = stripeOf(name);
+        lock.lock();
+        try {
+            Slot slotToSell = null;
+            for (Slot slot : itemsByName.getOrDefault(name, List.of())) {
+                if (slot.item.q >= quantity) {
+                    slotToSell = slot;
+                    break;
+                }
+            }
+
+            if (slotToSell == null) return;
+
+            int price = finalPrice.applyAsInt(slotToSell.item);
+            sales.computeIfAbsent(name, n -> new LongAdder()).add((long) price * quantity);
+
+            slotToSell.item.q -= quantity;
+            if (slotToSell.item.q <= 0) {
+                unindex(slotToSell);
+            }
+
+            // setWarTime waits for this stripe, so the war cannot change between the sale and this check
+            if (isWarTime && slotToSell.item.o == ItemOrigin.MORDOR) {
+                throw new IllegalStateException("Cannot sell items from Mordor during wartime!");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSales(String name) {
+        LongAdder total = sales.get(name);
+        return total == null ? 0 : total.sum();
+    }
+
+    @Override
+    public Optional<MiddleEarthItem> findItem(String name) {
+        ReentrantLock lock = stripeOf(name);
+        lock.lock();
+        try {
+            List<Slot> sameName = itemsByName.get(name);
+            return sameName == null ? Optional.empty() : Optional.of(sameName.getFirst().item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(MiddleEarthItem item) {
+        ReentrantLock lock = stripeOf(item.n);
+        lock.lock();
+        try {
+            List<Slot> sameName = itemsByName.get(item.n);
+            return sameName != null && sameName.stream().anyMatch(slot -> slot.item == item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void updateAllItems() {
+        lockAll();
+        try {
+            for (MiddleEarthItem degraded : dailyTick.updateAndCollectDegraded(new ArrayList<>(items.values()))) {
+                for (Slot slot : itemsByName.get(degraded.n)) {
+                    if (slot.item == degraded) {
+                        unindex(slot);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public boolean hasRing() {
+        return ringCount.get() > 0;
+    }
+
+    public boolean isWarTime() {
+        return isWarTime;
+    }
+
+    // Prices are adjusted when read (see WarPricing): every stripe is only taken so that no sale straddles the switch
+    public void setWarTime(boolean warTime) {
+        lockAll();
+        try {
+            this.isWarTime = warTime;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // The items themselves stay live: their fields keep changing under the stripe locks
+    public List<MiddleEarthItem> getAllItems() {
+        lockAll();
+        try {
+            return new ArrayList<>(items.values());
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public int getTotalInventoryValue() {
+        lockAll();
+        try {
+            int total = 0;
+            for (MiddleEarthItem item : items.values()) {
+                total += getPrice(item) * item.q;
+            }
+            return total;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Items are copied under every stripe, then written without holding any
+    @Override
+    public void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) throws IOException {
+        List<MiddleEarthItem> snapshot = new ArrayList<>(items.size());
+        int total = 0;
+        boolean warTime;
+        lockAll();
+        try {
+            for (MiddleEarthItem item : items.values()) {
+                snapshot.add(item.snapshot());
+                total += getPrice(item) * item.q;
+            }
+            warTime = isWarTime;
+        } finally {
+            unlockAll();
+        }
+
+        InventoryReportWriter writer = new InventoryReportWriter(includeRings, includeQualityDetails, limit, warTime);
+        writer.write(writer.order(snapshot, sortBy), total, out);
+    }
+
+    public String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy) {
+        StringWriter report = new StringWriter();
+        try {
+            writeInventoryReport(report, includeRings, includeQualityDetails, sortBy, InventoryReportWriter.NO_LIMIT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    // Callers hold the stripe of the slot's name, or every stripe
+    private void unindex(Slot slot) {
+        List<Slot> sameName = itemsByName.get(slot.item.n);
+        sameName.remove(slot);
+        if (sameName.isEmpty()) {
+            itemsByName.remove(slot.item.n);
+        }
+        items.remove(slot.sequence);
+        if (slot.item.isRing) ringCount.decrementAndGet();
+    }
+
+    private ReentrantLock stripeOf(String name) {
+        int hash = name.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // Always in stripe order, so that two whole-inventory operations cannot deadlock each other
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private record Slot(long sequence, MiddleEarthItem item) {
+    }
+}
@@ -0,0 +1,104 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Applies MiddleEarthItem.updateQuality to a whole inventory. Items are independent from each other, so large
+// inventories are split into chunks updated in parallel; degraded items are then dropped in a single ordered pass.
+public class DailyTick {
+    public static final int DEFAULT_PARALLELISM_THRESHOLD = 100_000;
+    private static final int MIN_CHUNK_SIZE = 4_096;
+
+    private final ForkJoinPool pool;
+    private final int parallelismThreshold;
+
+    public DailyTick() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLELISM_THRESHOLD);
+    }
+
+    public DailyTick(ForkJoinPool pool, int parallelismThreshold) {
+        if (parallelismThreshold < 1) {
+            throw new IllegalArgumentException("Parallelism threshold must be positive: " + parallelismThreshold);
+        }
+        this.pool = pool;
+        this.parallelismThreshold = parallelismThreshold;
+    }
+
+    // Updates every item and removes the completely degraded ones from the list itself, keeping the others in order
+    public void apply(List<MiddleEarthItem> items) {
+        boolean[] degraded = update(items);
+        int kept = 0;
+        for (int i = 0; i < degraded.length; i++) {
+            if (!degraded[i]) {
+                if (kept != i) items.set(kept, items.get(i));
+                kept++;
+            }
+        }
+        items.subList(kept, degraded.length).clear();
+    }
+
+    // Updates every item and returns the completely degraded ones, in inventory order, leaving the list untouched
+    public List<MiddleEarthItem> updateAndCollectDegraded(List<MiddleEarthItem> items) {
+        boolean[] degraded = update(items);
+        List<MiddleEarthItem> result = new ArrayList<>();
+        for (int i = 0; i < degraded.length; i++) {
+            if (degraded[i]) {
+                result.add(items.get(i));
+            }
+        }
+        return result;
+    }
+
+    private boolean[] update(List<MiddleEarthItem> items) {
+        boolean[] degraded = new boolean[items.size()];
+        if (items.size() < parallelismThreshold) {
+            updateRange(items, degraded, 0, items.size());
+        } else {
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, items.size() / (pool.getParallelism() * 4));
+            pool.invoke(new UpdateChunk(items, degraded, 0, items.size(), chunkSize));
+        }
+        return degraded;
+    }
+
+    private static void updateRange(List<MiddleEarthItem> items, boolean[] degraded, int from, int to) {
+        for (int i = from; i < to; i++) {
+            MiddleEarthItem item = items.get(i);
+            item.updateQuality();
+            degraded[i] = isDegraded(item);
+        }
+    }
+
+    // Completely degraded items leave the inventory at the end of the day
+    static boolean isDegraded(MiddleEarthItem item) {
+        return item.qual <= 0 && !item.isE && !item.isGood && !item.isMithril;
+    }
+
+    private static class UpdateChunk extends RecursiveAction {
+        private final List<MiddleEarthItem> items;
+        private final boolean[] degraded;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        UpdateChunk(List<MiddleEarthItem> items, boolean[] degraded, int from, int to, int chunkSize) {
+            this.items = items;
+            this.degraded = degraded;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                updateRange(items, degraded, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new UpdateChunk(items, degraded, from, middle, chunkSize),
+                    new UpdateChunk(items, degraded, middle, to, chunkSize));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Gold of the characters, as an append-only log of transfers in primitive columns (debited account, credited account,
+// amount) and the balances it adds up to, in a long array indexed by character id. Gold coming from or going out of
+// Middle Earth (quest rewards, merchants) is moved from or to the EXTERNAL account, which has no balance.
+//
+// Operations check everything before appending anything, so a rejected operation leaves no transfer behind. Balances
+// are copied every checkpointInterval transfers: the balance after any transfer is the closest checkpoint before it
+// plus the few transfers in between.
+//
+// Not thread-safe: one writer, like the manager that owns it.
+public class GoldLedger {
+    public static final int EXTERNAL = -1;
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 4_096;
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final int checkpointInterval;
+    private int[] debit = new int[INITIAL_CAPACITY];
+    private int[] credit = new int[INITIAL_CAPACITY];
+    private long[] amount = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private long[] balances = new long[16];
+    private boolean[] open = new boolean[16];
+    // Account ids, in the order they were opened
+    private final IntColumn accounts = new IntColumn();
+    // Highest opened account + 1: checkpoints do not copy the unused end of the balances
+    private int accountLimit = 0;
+    // checkpoints.get(k) holds the balances after k * checkpointInterval transfers
+    private final List<long[]> checkpoints = new ArrayList<>();
+
+    public GoldLedger() {
+        this(DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public GoldLedger(int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+        checkpoints.add(new long[0]);
+    }
+
+    public boolean hasAccount(int character) {
+        return character >= 0 && character < open.length && open[character];
+    }
+
+    public long balanceOf(int character) {
+        return hasAccount(character) ? balances[character] : 0;
+    }
+
+    // Accounts are opened by the first gold they receive
+    public int[] accounts() {
+        int[] ids = new int[accounts.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = accounts.get(i);
+        }
+        return ids;
+    }
+
+    public void deposit(int character, long gold) {
+        checkAmount(gold);
+        makeRoomFor(character);
+        append(EXTERNAL, character, gold);
+    }
+
+    public void withdraw(int character, long gold) {
+        checkAmount(gold);
+        checkFunds(character, gold);
+        append(character, EXTERNAL, gold);
+    }
+
+    public void transfer(int from, int to, long gold) {
+        checkAmount(gold);
+        makeRoomFor(to);
+        checkFunds(from, gold);
+        append(from, to, gold);
+    }
+
+    // Deposits the same share to every character, all at once or not at all
+    public void distribute(long share, int[] characters) {
+        checkAmount(share);
+        for (int character : characters) {
+            makeRoomFor(character);
+        }
+        reserve(characters.length);
+        for (int character : characters) {
+            append(EXTERNAL, character, share);
+        }
+    }
+
+    public int transferCount() {
+        return size;
+    }
+
+    public int debitOf(int transfer) {
+        checkTransfer(transfer, size - 1);
+        return debit[transfer];
+    }
+
+    public int creditOf(int transfer) {
+        checkTransfer(transfer, size - 1);
+        return credit[transfer];
+    }
+
+    public long amountOf(int transfer) {
+        checkTransfer(transfer, size - 1);
+        return amount[transfer];
+    }
+
+    // Balance once the first transfers of the log were made: balanceAt(c, 0) is 0, balanceAt(c, transferCount()) is
+    // balanceOf(c)
+    public long balanceAt(int character, int transfers) {
+        checkTransfer(transfers, size);
+        int checkpoint = transfers / checkpointInterval;
+        long[] base = checkpoints.get(checkpoint);
+        long balance = character >= 0 && character < base.length ? base[character] : 0;
+        for (int transfer = checkpoint * checkpointInterval; transfer < transfers; transfer++) {
+            if (credit[transfer] == character) balance += amount[transfer];
+            if (debit[transfer] == character) balance -= amount[transfer];
+        }
+        return balance;
+    }
+
+    private void append(int from, int to, long gold) {
+        reserve(1);
+        debit[size] = from;
+        credit[size] = to;
+        amount[size] = gold;
+        size++;
+
+        if (from != EXTERNAL) balances[from] -= gold;
+        if (to != EXTERNAL) {
+            if (!open[to]) {
+                open[to] = true;
+                accounts.add(to);
+                accountLimit = Math.max(accountLimit, to + 1);
+            }
+            balances[to] += gold;
+        }
+        if (size % checkpointInterval == 0) {
+            checkpoints.add(Arrays.copyOf(balances, accountLimit));
+        }
+    }
+
+    private void reserve(int transfers) {
+        if (size + transfers > debit.length) {
+            int capacity = debit.length;
+            while (size + transfers > capacity) {
+                capacity = IntColumn.grownCapacity(capacity);
+            }
+            debit = Arrays.copyOf(debit, capacity);
+            credit = Arrays.copyOf(credit, capacity);
+            amount = Arrays.copyOf(amount, capacity);
+        }
+    }
+
+    private void makeRoomFor(int character) {
+        if (character < 0) {
+            throw new IllegalArgumentException("Unknown character id: " + character);
+        }
+        if (character >= balances.length) {
+            int capacity = Math.max(character + 1, 2 * balances.length);
+            balances = Arrays.copyOf(balances, capacity);
+            open = Arrays.copyOf(open, capacity);
+        }
+    }
+
+    private void checkFunds(int character, long gold) {
+        if (!hasAccount(character)) {
+            throw new IllegalStateException("Character " + character + " has no gold account.");
+        }
+        if (balances[character] < gold) {
+            throw new IllegalStateException("Character " + character + " has " + balances[character] + " gold, " + gold + " needed.");
+        }
+    }
+
+    private static void checkAmount(long gold) {
+        if (gold < 0) {
+            throw new IllegalArgumentException("Gold amounts cannot be negative: " + gold);
+        }
+    }
+
+    private static void checkTransfer(int transfer, int last) {
+        if (transfer < 0 || transfer > last) {
+            throw new IndexOutOfBoundsException(transfer);
+        }
+    }
+}
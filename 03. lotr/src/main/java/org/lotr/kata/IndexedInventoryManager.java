@@ -0,0 +1,340 @@
+package org.lotr.kata;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+// Same behaviour as InventoryManager, but every lookup goes through a hash index instead of scanning the list.
+// Items are expected to be mutated through the manager only: the indexes are not aware of external field writes.
+public class IndexedInventoryManager implements InventoryManagerInterface {
+    // Origins in the alphabetical order used by the "origin" report
+    private static final List<ItemOrigin> ORIGINS_BY_NAME = Arrays.stream(ItemOrigin.values())
+            .sorted(Comparator.comparing(ItemOrigin::name))
+            .toList();
+
+    // Items in inventory order, with their insertion sequence used to break ties in the sorted views
+    private final LinkedHashMap<MiddleEarthItem, Long> items = new LinkedHashMap<>();
+    private final Map<ItemKey, MiddleEarthItem> itemsByKey = new HashMap<>();
+    private final Map<String, LinkedHashSet<MiddleEarthItem>> itemsByName = new HashMap<>();
+    private final Map<ItemOrigin, LinkedHashSet<MiddleEarthItem>> itemsByOrigin = new EnumMap<>(ItemOrigin.class);
+    // Sorted views, kept up to date so that reports and range queries cost O(k) instead of a full sort
+    private final TreeMap<NameKey, MiddleEarthItem> itemsSortedByName = new TreeMap<>();
+    // Peace and war prices are both kept sorted, so that declaring or ending a war does not touch any index
+    private final TreeMap<PriceKey, MiddleEarthItem> itemsSortedByPeacePrice = new TreeMap<>();
+    private final TreeMap<PriceKey, MiddleEarthItem> itemsSortedByWarPrice = new TreeMap<>();
+    private final Map<ItemOrigin, TreeMap<NameKey, MiddleEarthItem>> itemsByOriginSortedByName = new EnumMap<>(ItemOrigin.class);
+    private final Map<String, Integer> sales = new HashMap<>();
+    // Running price * quantity totals at peace and at war, kept in sync by every mutation so valuation reads never
+    // walk the inventory
+    private final long[] peaceValueByOrigin = new long[ItemOrigin.values().length];
+    private final long[] warValueByOrigin = new long[ItemOrigin.values().length];
+    private long peaceValue = 0;
+    private long warValue = 0;
+    private int ringCount = 0;
+    private long nextSequence = 0;
+    private boolean isWarTime = false;
+    private final DailyTick dailyTick;
+
+    public IndexedInventoryManager() {
+        this(new DailyTick());
+    }
+
+    public IndexedInventoryManager(DailyTick dailyTick) {
+        this.dailyTick = dailyTick;
+        for (ItemOrigin origin : ItemOrigin.values()) {
+            itemsByOrigin.put(origin, new LinkedHashSet<>());
+            itemsByOriginSortedByName.put(origin, new TreeMap<>());
+        }
+    }
+
+    public void addItem(MiddleEarthItem i) {
+        if (i == null) return;
+
+        MiddleEarthItem existing = itemsByKey.get(ItemKey.of(i));
+        if (existing != null) {
+            changeQuantity(existing, i.q);
+            return;
+        }
+
+        index(i);
+    }
+
+    public void removeItem(String name, int quantity) {
+        LinkedHashSet<MiddleEarthItem> sameName = itemsByName.get(name);
+        if (sameName == null) return;
+
+        MiddleEarthItem item = sameName.getFirst();
+        changeQuantity(item, -quantity);
+        if (item.q <= 0) {
+            unindex(item);
+        }
+    }
+
+    @Override
+    public Optional<MiddleEarthItem> findItem(String name) {
+        LinkedHashSet<MiddleEarthItem> sameName = itemsByName.get(name);
+        return sameName == null ? Optional.empty() : Optional.of(sameName.getFirst());
+    }
+
+    @Override
+    public boolean contains(MiddleEarthItem item) {
+        return items.containsKey(item);
+    }
+
+    public List<MiddleEarthItem> getItemsFromOrigin(ItemOrigin origin) {
+        return new ArrayList<>(itemsByOrigin.get(origin));
+    }
+
+    public List<MiddleEarthItem> getItemsFromOriginByName(ItemOrigin origin) {
+        return new ArrayList<>(itemsByOriginSortedByName.get(origin).values());
+    }
+
+    public List<MiddleEarthItem> getMostExpensiveItems(int limit) {
+        return itemsSortedByPrice().values().stream().limit(limit).toList();
+    }
+
+    // Most expensive first, like the "price" report
+    public List<MiddleEarthItem> getItemsPricedBetween(int minPrice, int maxPrice) {
+        if (minPrice > maxPrice) return List.of();
+        return new ArrayList<>(itemsSortedByPrice().subMap(
+                new PriceKey(maxPrice, Long.MIN_VALUE), true,
+                new PriceKey(minPrice, Long.MAX_VALUE), true).values());
+    }
+
+    // Narrowing keeps the int overflow behaviour of summing p * q in an int
+    public int getTotalInventoryValue() {
+        return (int) (isWarTime ? warValue : peaceValue);
+    }
+
+    public int getTotalValueByOrigin(ItemOrigin origin) {
+        return (int) (isWarTime ? warValueByOrigin : peaceValueByOrigin)[origin.ordinal()];
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, String dayOfWeek) {
+        sellItem(name, quantity, item -> item.getFinalPrice(getPrice(item), isHaggling, dayOfWeek));
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, DayOfWeek dayOfWeek) {
+        sellItem(name, quantity, item -> getFinalPrice(item, isHaggling, dayOfWeek));
+    }
+
+    private void sellItem(String name, int quantity, ToIntFunction<MiddleEarthItem> finalPrice) {
+        LinkedHashSet<MiddleEarthItem> sameName = itemsByName.get(name);
+        if (sameName == null) return;
+
+        MiddleEarthItem itemToSell = null;
+        for (MiddleEarthItem item : sameName) {
+            if (item.q >= quantity) {
+                itemToSell = item;
+                break;
+            }
+        }
+
+        if (itemToSell == null) return;
+
+        int price = finalPrice.applyAsInt(itemToSell);
+        sales.merge(name, price * quantity, Integer::sum);
+
+        changeQuantity(itemToSell, -quantity);
+        if (itemToSell.q <= 0) {
+            unindex(itemToSell);
+        }
+
+        if (isWarTime && itemToSell.o == ItemOrigin.MORDOR) {
+            throw new IllegalStateException("Cannot sell items from Mordor during wartime!");
+        }
+    }
+
+    public void updateAllItems() {
+        List<MiddleEarthItem> inventory = new ArrayList<>(items.keySet());
+        int[] qualities = new int[inventory.size()];
+        for (int i = 0; i < qualities.length; i++) {
+            qualities[i] = inventory.get(i).qual;
+        }
+        List<MiddleEarthItem> degraded = dailyTick.updateAndCollectDegraded(inventory);
+
+        // Only the items whose quality moved change key; visiting them in inventory order lets the first one win
+        for (int i = 0; i < qualities.length; i++) {
+            MiddleEarthItem item = inventory.get(i);
+            if (item.qual != qualities[i]) {
+                rekey(item, new ItemKey(item.n, item.o, qualities[i]));
+            }
+        }
+        for (MiddleEarthItem itemToRemove : degraded) {
+            unindex(itemToRemove);
+        }
+    }
+
+    public boolean hasRing() {
+        return ringCount > 0;
+    }
+
+    public boolean isWarTime() {
+        return isWarTime;
+    }
+
+    public void setWarTime(boolean warTime) {
+        this.isWarTime = warTime;
+    }
+
+    public List<MiddleEarthItem> getAllItems() {
+        return new ArrayList<>(items.keySet());
+    }
+
+    Map<String, Integer> getSales() {
+        return Collections.unmodifiableMap(sales);
+    }
+
+    // Snapshot loading: items come back exactly as saved, even those that share a key after a tick
+    void restoreItem(MiddleEarthItem item) {
+        index(item);
+    }
+
+    void restoreSales(String name, int total) {
+        sales.put(name, total);
+    }
+
+    public String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy) {
+        StringWriter report = new StringWriter();
+        try {
+            writeInventoryReport(report, includeRings, includeQualityDetails, sortBy, InventoryReportWriter.NO_LIMIT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) throws IOException {
+        InventoryReportWriter writer = new InventoryReportWriter(includeRings, includeQualityDetails, limit, isWarTime);
+        writer.write(sortedView(sortBy), getTotalInventoryValue(), out);
+    }
+
+    // Views are read lazily by the report writer, which stops as soon as the limit is reached
+    private Iterable<MiddleEarthItem> sortedView(String sortBy) {
+        return switch (sortBy) {
+            case "name" -> itemsSortedByName.values();
+            case "price" -> itemsSortedByPrice().values();
+            case "origin" -> () -> ORIGINS_BY_NAME.stream()
+                    .flatMap(origin -> itemsByOrigin.get(origin).stream())
+                    .iterator();
+            default -> items.keySet();
+        };
+    }
+
+    private TreeMap<PriceKey, MiddleEarthItem> itemsSortedByPrice() {
+        return isWarTime ? itemsSortedByWarPrice : itemsSortedByPeacePrice;
+    }
+
+    private void changeQuantity(MiddleEarthItem item, int delta) {
+        item.q += delta;
+        addValue(item, delta);
+    }
+
+    private void addValue(MiddleEarthItem item, long quantity) {
+        long peace = item.p * quantity;
+        long war = WarPricing.warPrice(item) * quantity;
+        peaceValueByOrigin[item.o.ordinal()] += peace;
+        warValueByOrigin[item.o.ordinal()] += war;
+        peaceValue += peace;
+        warValue += war;
+    }
+
+    private void index(MiddleEarthItem item) {
+        long sequence = nextSequence++;
+        addValue(item, item.q);
+        items.put(item, sequence);
+        itemsSortedByName.put(new NameKey(item.n, sequence), item);
+        itemsSortedByPeacePrice.put(new PriceKey(item.p, sequence), item);
+        itemsSortedByWarPrice.put(new PriceKey(WarPricing.warPrice(item), sequence), item);
+        itemsByOriginSortedByName.get(item.o).put(new NameKey(item.n, sequence), item);
+        itemsByKey.putIfAbsent(ItemKey.of(item), item);
+        itemsByName.computeIfAbsent(item.n, name -> new LinkedHashSet<>()).add(item);
+        itemsByOrigin.get(item.o).add(item);
+        if (item.isRing) ringCount++;
+    }
+
+    private void unindex(MiddleEarthItem item) {
+        long sequence = items.remove(item);
+        addValue(item, -item.q);
+        itemsSortedByName.remove(new NameKey(item.n, sequence));
+        itemsSortedByPeacePrice.remove(new PriceKey(item.p, sequence));
+        itemsSortedByWarPrice.remove(new PriceKey(WarPricing.warPrice(item), sequence));
+        itemsByOriginSortedByName.get(item.o).remove(new NameKey(item.n, sequence));
+        itemsByOrigin.get(item.o).remove(item);
+        if (item.isRing) ringCount--;
+
+        LinkedHashSet<MiddleEarthItem> sameName = itemsByName.get(item.n);
+        sameName.remove(item);
+        if (sameName.isEmpty()) {
+            itemsByName.remove(item.n);
+        }
+
+        ItemKey key = ItemKey.of(item);
+        if (itemsByKey.get(key) == item) {
+            handOver(key, sameName);
+        }
+    }
+
+    private void rekey(MiddleEarthItem item, ItemKey previous) {
+        if (itemsByKey.get(previous) == item) {
+            handOver(previous, itemsByName.get(item.n));
+        }
+
+        // The current holder may have moved too, and only be rekeyed later in this tick
+        ItemKey key = ItemKey.of(item);
+        MiddleEarthItem holder = itemsByKey.get(key);
+        if (holder == null || !ItemKey.of(holder).equals(key) || items.get(holder) > items.get(item)) {
+            itemsByKey.put(key, item);
+        }
+    }
+
+    // Another item may share the key after a tick: hand the key over to the next one in inventory order
+    private void handOver(ItemKey key, Iterable<MiddleEarthItem> sameName) {
+        itemsByKey.remove(key);
+        for (MiddleEarthItem candidate : sameName) {
+            if (ItemKey.of(candidate).equals(key)) {
+                itemsByKey.put(key, candidate);
+                break;
+            }
+        }
+    }
+
+    private record NameKey(String name, long sequence) implements Comparable<NameKey> {
+        @Override
+        public int compareTo(NameKey other) {
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // Most expensive first, then inventory order
+    private record PriceKey(int price, long sequence) implements Comparable<PriceKey> {
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Integer.compare(other.price, price);
+            return byPrice != 0 ? byPrice : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private record ItemKey(String name, ItemOrigin origin, int quality) {
+        static ItemKey of(MiddleEarthItem item) {
+            return new ItemKey(item.n, item.o, item.qual);
+        }
+    }
+}
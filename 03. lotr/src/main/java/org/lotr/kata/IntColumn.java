@@ -0,0 +1,45 @@
+package org.lotr.kata;
+
+import java.util.Arrays;
+
+// Growable int array: a column or a posting list without one boxed Integer per value
+final class IntColumn {
+    private int[] values;
+    private int size = 0;
+
+    IntColumn() {
+        this(8);
+    }
+
+    IntColumn(int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grownCapacity(values.length));
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Doubles while small, then grows by half so that very large columns do not overshoot by gigabytes
+    static int grownCapacity(int capacity) {
+        long grown = capacity < (1 << 20) ? 2L * capacity : capacity + (capacity >> 1);
+        if (grown > Integer.MAX_VALUE - 8) {
+            if (capacity == Integer.MAX_VALUE - 8) throw new IllegalStateException("Column is full");
+            return Integer.MAX_VALUE - 8;
+        }
+        return (int) grown;
+    }
+}
@@ -0,0 +1,259 @@
+package org.lotr.kata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.util.zip.CRC32C;
+
+// Append-only, memory-mapped log of inventory events. The file starts with the generation of the snapshot it
+// follows, then holds [length][checksum][type][payload] records. A zero length ends the log; so does a record whose
+// checksum does not match, which is what a write torn by a crash looks like. The checksum covers the generation, so
+// records left over from before the last snapshot are never mistaken for new ones.
+class InventoryJournal implements Closeable {
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte SELL = 3;
+    private static final byte TICK = 4;
+    private static final byte WAR = 5;
+    // Unknown day names are priced like the historical string lookup, without any day rule
+    private static final byte NO_DAY = -1;
+
+    private static final int FILE_HEADER = Long.BYTES;
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+    private static final long INITIAL_CAPACITY = 1 << 20;
+    private static final long MAX_CAPACITY = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final int syncEvery;
+    private final CRC32C checksum = new CRC32C();
+    private MappedByteBuffer log;
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private final ByteBuffer generation = ByteBuffer.allocate(Long.BYTES);
+    private int unsynced = 0;
+
+    private InventoryJournal(FileChannel channel, int syncEvery) throws IOException {
+        this.channel = channel;
+        this.syncEvery = syncEvery;
+        this.log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_CAPACITY));
+        generation.putLong(0, log.getLong(0));
+        log.position(FILE_HEADER);
+    }
+
+    // syncEvery is the number of records appended between two flushes to disk, 0 leaving it to the operating system
+    static InventoryJournal open(Path file, int syncEvery) throws IOException {
+        if (syncEvery < 0) {
+            throw new IllegalArgumentException("Sync interval cannot be negative: " + syncEvery);
+        }
+        return new InventoryJournal(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE), syncEvery);
+    }
+
+    long generation() {
+        return generation.getLong(0);
+    }
+
+    long size() {
+        return log.position();
+    }
+
+    // Applies every complete record to the inventory and returns how many there were; appends go after the last one
+    int replay(IndexedInventoryManager inventory) {
+        int records = 0;
+        int position = FILE_HEADER;
+        while (log.capacity() - position >= RECORD_HEADER) {
+            int length = log.getInt(position);
+            if (length <= 0 || length > log.capacity() - position - RECORD_HEADER) break;
+
+            ByteBuffer payload = log.slice(position + RECORD_HEADER, length);
+            if (checksumOf(payload) != log.getInt(position + Integer.BYTES)) break;
+
+            apply(payload, inventory);
+            position += RECORD_HEADER + length;
+            records++;
+        }
+        log.position(position);
+        return records;
+    }
+
+    void appendAdd(MiddleEarthItem item) throws IOException {
+        byte[] name = item.n.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = startRecord(ADD, itemSize(name));
+        putItem(out, item, name);
+        append();
+    }
+
+    void appendRemove(String name, int quantity) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = startRecord(REMOVE, Integer.BYTES + bytes.length + Integer.BYTES);
+        putString(out, bytes);
+        out.putInt(quantity);
+        append();
+    }
+
+    void appendSell(String name, int quantity, boolean isHaggling, DayOfWeek dayOfWeek) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = startRecord(SELL, Integer.BYTES + bytes.length + Integer.BYTES + 2);
+        putString(out, bytes);
+        out.putInt(quantity);
+        out.put((byte) (isHaggling ? 1 : 0));
+        out.put(dayOfWeek == null ? NO_DAY : (byte) dayOfWeek.ordinal());
+        append();
+    }
+
+    void appendTick() throws IOException {
+        startRecord(TICK, 0);
+        append();
+    }
+
+    void appendWar(boolean warTime) throws IOException {
+        startRecord(WAR, 1).put((byte) (warTime ? 1 : 0));
+        append();
+    }
+
+    // Starts a new generation right after a snapshot: the records of the previous one are dropped
+    void reset(long newGeneration) {
+        generation.putLong(0, newGeneration);
+        log.putLong(0, newGeneration);
+        log.putInt(FILE_HEADER, 0);
+        log.position(FILE_HEADER);
+        sync();
+    }
+
+    void sync() {
+        log.force();
+        unsynced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    private ByteBuffer startRecord(byte type, int payloadSize) {
+        int size = 1 + payloadSize;
+        if (record.capacity() < size) {
+            record = ByteBuffer.allocate(Math.max(size, record.capacity() * 2));
+        }
+        record.clear();
+        record.put(type);
+        return record;
+    }
+
+    private void append() throws IOException {
+        record.flip();
+        int length = record.remaining();
+        int crc = checksumOf(record);
+
+        // Room for the record and for the end marker that follows it
+        ensureCapacity((long) RECORD_HEADER + length + Integer.BYTES);
+        int start = log.position();
+        log.putInt(start + Integer.BYTES, crc);
+        log.put(start + RECORD_HEADER, record, 0, length);
+        log.putInt(start + RECORD_HEADER + length, 0);
+        log.putInt(start, length);
+        log.position(start + RECORD_HEADER + length);
+
+        if (syncEvery > 0 && ++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        long required = log.position() + needed;
+        if (required <= log.capacity()) return;
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Inventory journal is full, a snapshot is needed");
+        }
+
+        int position = log.position();
+        log.force();
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(MAX_CAPACITY, Math.max(required, 2L * log.capacity())));
+        log.position(position);
+    }
+
+    private int checksumOf(ByteBuffer payload) {
+        checksum.reset();
+        checksum.update(generation.duplicate());
+        checksum.update(payload.duplicate());
+        return (int) checksum.getValue();
+    }
+
+    private static void apply(ByteBuffer payload, IndexedInventoryManager inventory) {
+        byte type = payload.get();
+        switch (type) {
+            case ADD -> inventory.addItem(getItem(payload));
+            case REMOVE -> inventory.removeItem(getString(payload), payload.getInt());
+            case SELL -> {
+                String name = getString(payload);
+                int quantity = payload.getInt();
+                boolean isHaggling = payload.get() == 1;
+                byte day = payload.get();
+                try {
+                    if (day == NO_DAY) {
+                        inventory.sellItem(name, quantity, isHaggling, "");
+                    } else {
+                        inventory.sellItem(name, quantity, isHaggling, DayOfWeek.values()[day]);
+                    }
+                } catch (IllegalStateException e) {
+                    // Refused after the fact, exactly like the original sale: the inventory is in the same state
+                }
+            }
+            case TICK -> inventory.updateAllItems();
+            case WAR -> inventory.setWarTime(payload.get() == 1);
+            default -> throw new IllegalStateException("Unknown inventory journal record: " + type);
+        }
+    }
+
+    static int itemSize(byte[] name) {
+        return Integer.BYTES + name.length + 4 * Integer.BYTES + 2;
+    }
+
+    static void putItem(ByteBuffer out, MiddleEarthItem item, byte[] name) {
+        putString(out, name);
+        out.putInt(item.q);
+        out.putInt(item.qual);
+        out.putInt(item.p);
+        out.putInt(item.m);
+        out.put((byte) item.o.ordinal());
+        out.put((byte) ((item.isRing ? 1 : 0) | (item.isGood ? 2 : 0) | (item.isE ? 4 : 0)
+                | (item.isMithril ? 8 : 0) | (item.isC ? 16 : 0)));
+    }
+
+    // Every field is restored as saved: the constructor only provides a starting point
+    static MiddleEarthItem getItem(ByteBuffer in) {
+        String name = getString(in);
+        int quantity = in.getInt();
+        int quality = in.getInt();
+        int price = in.getInt();
+        int magicLevel = in.getInt();
+        ItemOrigin origin = ItemOrigin.values()[in.get()];
+        byte flags = in.get();
+
+        MiddleEarthItem item = new MiddleEarthItem(name, quantity, quality, origin);
+        item.p = price;
+        item.m = magicLevel;
+        item.isRing = (flags & 1) != 0;
+        item.isGood = (flags & 2) != 0;
+        item.isE = (flags & 4) != 0;
+        item.isMithril = (flags & 8) != 0;
+        item.isC = (flags & 16) != 0;
+        return item;
+    }
+
+    static void putString(ByteBuffer out, byte[] bytes) {
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
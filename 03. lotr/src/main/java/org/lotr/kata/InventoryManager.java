@@ -1,21 +1,35 @@
 package org.lotr.kata;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToIntFunction;
 
 public class InventoryManager implements InventoryManagerInterface {
+    static final int DAILY_UPDATES_UP_TO = 8;
+
     private static InventoryManager instance;
-    private List<MiddleEarthItem> items = new ArrayList<>();
+    // Replaced, never modified, so that getAllItems can hand it out as is
+    private volatile SegmentedItemList items = SegmentedItemList.EMPTY;
     private Map<String, Integer> sales = new HashMap<>();
     private boolean isWarTime = false;
-
-    private InventoryManager() {
-        // Private constructor for singleton
+    private final DailyTick dailyTick = new DailyTick();
+    // Running p * q totals at peace and at war, and rings in stock, so that the state of Middle Earth is O(1) to read
+    private long peaceValue = 0;
+    private long warValue = 0;
+    private int ringCount = 0;
+
+    InventoryManager() {
+        // Constructor for singleton
     }
 
-    public static InventoryManager getInstance() {
+    public static synchronized InventoryManager getInstance() {
         if (instance == null) {
             instance = new InventoryManager();
         }
@@ -28,25 +42,30 @@ public class InventoryManager implements InventoryManagerInterface {
         // Check if we already have this item and just increase quantity
         for (MiddleEarthItem item : items) {
             if (item.n.equals(i.n) && item.o == i.o && item.qual == i.qual) {
-                item.q += i.q;
+                changeQuantity(item, i.q);
                 return;
             }
         }
 
         // Otherwise add new item
-        this.items.add(i);
+        addValue(i, i.q);
+        if (i.isRing) ringCount++;
+        this.items = items.with(i);
     }
 
     public void removeItem(String name, int quantity) {
         // Find item and remove quantity
+        int index = 0;
         for (MiddleEarthItem item : items) {
             if (item.n.equals(name)) {
-                item.q -= quantity;
+                changeQuantity(item, -quantity);
                 if (item.q <= 0) {
-                    items.remove(item);
+                    forget(item);
+                    items = items.without(index);
                 }
                 return;
             }
+            index++;
         }
     }
 
@@ -62,14 +81,9 @@ public class InventoryManager implements InventoryManagerInterface {
         return result;
     }
 
+    // Narrowing keeps the int overflow behaviour of summing p * q in an int
     public int getTotalInventoryValue() {
-        int total = 0;
-
-        for (MiddleEarthItem item : items) {
-            total += item.p * item.q;
-        }
-
-        return total;
+        return (int) (isWarTime ? warValue : peaceValue);
     }
 
     public int getTotalValueByOrigin(ItemOrigin origin) {
@@ -77,7 +91,7 @@ public class InventoryManager implements InventoryManagerInterface {
 
         for (MiddleEarthItem item : items) {
             if (item.o == origin) {
-                total += item.p * item.q;
+                total += getPrice(item) * item.q;
             }
         }
 
@@ -85,6 +99,14 @@ public class InventoryManager implements InventoryManagerInterface {
     }
 
     public void sellItem(String name, int quantity, boolean isHaggling, String dayOfWeek) {
+        sellItem(name, quantity, item -> item.getFinalPrice(getPrice(item), isHaggling, dayOfWeek));
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, DayOfWeek dayOfWeek) {
+        sellItem(name, quantity, item -> getFinalPrice(item, isHaggling, dayOfWeek));
+    }
+
+    private void sellItem(String name, int quantity, ToIntFunction<MiddleEarthItem> finalPrice) {
         // Find the item
         MiddleEarthItem itemToSell = null;
         for (MiddleEarthItem item : items) {
@@ -97,7 +119,7 @@ public class InventoryManager implements InventoryManagerInterface {
         if (itemToSell == null) return;
 
         // Calculate price
-        int price = itemToSell.getFinalPrice(isHaggling, dayOfWeek);
+        int price = finalPrice.applyAsInt(itemToSell);
 
         // Record sale
         if (sales.containsKey(name)) {
@@ -107,9 +129,10 @@ public class InventoryManager implements InventoryManagerInterface {
         }
 
         // Update inventory
-        itemToSell.q -= quantity;
+        changeQuantity(itemToSell, -quantity);
         if (itemToSell.q <= 0) {
-            items.remove(itemToSell);
+            forget(itemToSell);
+            items = items.without(items.indexOf(itemToSell));
         }
 
         // Apply special wartime logic
@@ -120,30 +143,23 @@ public class InventoryManager implements InventoryManagerInterface {
     }
 
     public void updateAllItems() {
-        ArrayList<MiddleEarthItem> itemsToRemove = new ArrayList<>();
-
-        for (MiddleEarthItem item : items) {
-            item.updateQuality();
-
-            // Remove completely degraded items
-            if (item.qual <= 0 && !item.isE && !item.isGood && !item.isMithril) {
-                itemsToRemove.add(item);
-            }
-        }
+        // Update every item and drop the completely degraded ones in a single pass
+        removeDegraded(dailyTick.updateAndCollectDegraded(items));
+    }
 
-        // Remove degraded items
-        for (MiddleEarthItem itemToRemove : itemsToRemove) {
-            items.remove(itemToRemove);
+    // Items are only looked at on the days their quality changes course, see QualityTimeline. Filing them costs about
+    // as much as a dozen daily updates, so short jumps are still made one day at a time.
+    @Override
+    public void advanceDays(int days) {
+        if (days <= DAILY_UPDATES_UP_TO) {
+            InventoryManagerInterface.super.advanceDays(days);
+        } else {
+            removeDegraded(new QualityTimeline(items).advance(days));
         }
     }
 
     public boolean hasRing() {
-        for (MiddleEarthItem item : items) {
-            if (item.isRing) {
-                return true;
-            }
-        }
-        return false;
+        return ringCount > 0;
     }
 
     public boolean isWarTime() {
@@ -151,77 +167,52 @@ public class InventoryManager implements InventoryManagerInterface {
     }
 
     public void setWarTime(boolean warTime) {
+        // Gondor items get more valuable during the war: prices are adjusted when read, see WarPricing
         this.isWarTime = warTime;
-
-        // When war starts, gondor items get more valuable
-        if (warTime) {
-            for (MiddleEarthItem item : items) {
-                if (item.o == ItemOrigin.GONDOR) {
-                    item.p = (int) (item.p * 1.5);
-                } else if (item.o == ItemOrigin.ROHAN) {
-                    item.p = (int) (item.p * 1.3);
-                } else if (item.o == ItemOrigin.MORDOR) {
-                    if (!item.isRing) {
-                        item.p = (int) (item.p * 0.5);
-                    }
-                }
-            }
-        } else {
-            // Reset prices when war ends
-            for (MiddleEarthItem item : items) {
-                if (item.o == ItemOrigin.GONDOR) {
-                    item.p = (int) (item.p / 1.5);
-                } else if (item.o == ItemOrigin.ROHAN) {
-                    item.p = (int) (item.p / 1.3);
-                } else if (item.o == ItemOrigin.MORDOR) {
-                    if (!item.isRing) {
-                        item.p = (int) (item.p * 2);
-                    }
-                }
-            }
-        }
     }
 
-    // For testing - get all items
+    // Immutable view of the current items, unaffected by later changes to the inventory
     public List<MiddleEarthItem> getAllItems() {
-        return new ArrayList<>(items);
+        return items;
     }
 
     // Generate a report with confusing logic
     public String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy) {
-        StringBuilder report = new StringBuilder();
-        report.append("INVENTORY REPORT\n");
-        report.append("----------------\n");
-
-        List<MiddleEarthItem> sortedItems = new ArrayList<>(items);
-
-        if (sortBy.equals("name")) {
-            sortedItems.sort((a, b) -> a.n.compareTo(b.n));
-        } else if (sortBy.equals("price")) {
-            sortedItems.sort((a, b) -> Integer.compare(b.p, a.p));
-        } else if (sortBy.equals("origin")) {
-            sortedItems.sort((a, b) -> a.o.toString().compareTo(b.o.toString()));
+        StringWriter report = new StringWriter();
+        try {
+            writeInventoryReport(report, includeRings, includeQualityDetails, sortBy, InventoryReportWriter.NO_LIMIT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return report.toString();
+    }
 
-        for (MiddleEarthItem item : sortedItems) {
-            if (!includeRings && item.isRing) continue;
-
-            report.append(item.n).append(" (").append(item.o).append(") - Qty: ").append(item.q)
-                    .append(", Price: ").append(item.p);
-
-            if (includeQualityDetails) {
-                report.append(", Quality: ").append(item.qual);
-                if (item.isGood) report.append(" [Good]");
-                if (item.isC) report.append(" [Cursed]");
-                if (item.isMithril) report.append(" [Mithril]");
-                if (item.isE) report.append(" [Magic Level: ").append(item.m).append("]");
-            }
+    @Override
+    public void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) throws IOException {
+        InventoryReportWriter writer = new InventoryReportWriter(includeRings, includeQualityDetails, limit, isWarTime);
+        writer.write(writer.order(items, sortBy), getTotalInventoryValue(), out);
+    }
 
-            report.append("\n");
+    private void removeDegraded(List<MiddleEarthItem> degraded) {
+        for (MiddleEarthItem item : degraded) {
+            forget(item);
         }
+        items = items.without(degraded);
+    }
 
-        report.append("\nTotal Value: ").append(getTotalInventoryValue()).append(" gold coins");
+    private void changeQuantity(MiddleEarthItem item, int delta) {
+        item.q += delta;
+        addValue(item, delta);
+    }
 
-        return report.toString();
+    // Takes an item leaving the inventory out of the totals
+    private void forget(MiddleEarthItem item) {
+        addValue(item, -item.q);
+        if (item.isRing) ringCount--;
+    }
+
+    private void addValue(MiddleEarthItem item, long quantity) {
+        peaceValue += item.p * quantity;
+        warValue += WarPricing.warPrice(item) * quantity;
     }
-}
\ No newline at end of file
+}
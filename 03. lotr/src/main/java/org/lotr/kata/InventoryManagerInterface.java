@@ -1,6 +1,10 @@
 package org.lotr.kata;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Optional;
 
 public interface InventoryManagerInterface {
     List<MiddleEarthItem> getAllItems();
@@ -13,9 +17,50 @@ public interface InventoryManagerInterface {
     
     void updateAllItems();
     
+    // Same as that many updateAllItems calls
+    default void advanceDays(int days) {
+        for (int day = 0; day < days; day++) {
+            updateAllItems();
+        }
+    }
+    
     void setWarTime(boolean warTime);
     
     boolean hasRing();
     
     String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy);
+
+    // Current price of an item: its base price, adjusted while at war
+    default int getPrice(MiddleEarthItem item) {
+        return WarPricing.priceOf(item, isWarTime());
+    }
+
+    default int getFinalPrice(MiddleEarthItem item, boolean isHaggling, DayOfWeek dayOfWeek) {
+        return item.getFinalPrice(getPrice(item), isHaggling, dayOfWeek);
+    }
+
+    default int getTotalInventoryValue() {
+        int total = 0;
+        for (MiddleEarthItem item : getAllItems()) {
+            total += getPrice(item) * item.q;
+        }
+        return total;
+    }
+
+    // Streams the report instead of building it in memory; limit caps the number of item lines
+    default void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) throws IOException {
+        InventoryReportWriter writer = new InventoryReportWriter(includeRings, includeQualityDetails, limit, isWarTime());
+        writer.write(writer.order(getAllItems(), sortBy), getTotalInventoryValue(), out);
+    }
+
+    default Optional<MiddleEarthItem> findItem(String name) {
+        return getAllItems().stream()
+                .filter(item -> item.n.equals(name))
+                .findFirst();
+    }
+
+    // Whether this very item is in stock
+    default boolean contains(MiddleEarthItem item) {
+        return getAllItems().contains(item);
+    }
 }
\ No newline at end of file
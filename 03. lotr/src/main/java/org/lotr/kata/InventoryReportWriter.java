@@ -0,0 +1,176 @@
+package org.lotr.kata;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Writes the inventory report line by line through a fixed-size buffer, so that the memory used by a report
+// does not depend on the size of the inventory. Items must be handed over already in report order.
+public class InventoryReportWriter {
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private final boolean includeRings;
+    private final boolean includeQualityDetails;
+    private final int limit;
+    private final int chunkSize;
+    private final boolean warTime;
+
+    public InventoryReportWriter(boolean includeRings, boolean includeQualityDetails, int limit) {
+        this(includeRings, includeQualityDetails, limit, DEFAULT_CHUNK_SIZE, false);
+    }
+
+    public InventoryReportWriter(boolean includeRings, boolean includeQualityDetails, int limit, boolean warTime) {
+        this(includeRings, includeQualityDetails, limit, DEFAULT_CHUNK_SIZE, warTime);
+    }
+
+    public InventoryReportWriter(boolean includeRings, boolean includeQualityDetails, int limit, int chunkSize) {
+        this(includeRings, includeQualityDetails, limit, chunkSize, false);
+    }
+
+    // Prices are printed and sorted as they are at war when warTime is set
+    public InventoryReportWriter(boolean includeRings, boolean includeQualityDetails, int limit, int chunkSize, boolean warTime) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Report limit cannot be negative: " + limit);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.includeRings = includeRings;
+        this.includeQualityDetails = includeQualityDetails;
+        this.limit = limit;
+        this.chunkSize = chunkSize;
+        this.warTime = warTime;
+    }
+
+    // Orders items the way the report expects them. Unknown sort keys keep the inventory order. When a limit is set,
+    // only the first items are kept, in a bounded heap, instead of sorting the whole inventory.
+    public Iterable<MiddleEarthItem> order(Collection<MiddleEarthItem> items, String sortBy) {
+        // Header and total only: nothing to rank
+        if (limit == 0) {
+            return List.of();
+        }
+
+        Comparator<MiddleEarthItem> comparator = comparatorFor(sortBy);
+        if (comparator == null) {
+            return items;
+        }
+
+        if (limit >= items.size() && sortBy.equals("price")) {
+            return sortByPrice(new ArrayList<>(items));
+        }
+
+        if (limit >= items.size()) {
+            List<MiddleEarthItem> sortedItems = new ArrayList<>(items);
+            sortedItems.sort(comparator);
+            return sortedItems;
+        }
+
+        // Ties are broken by inventory order, like the stable sort of the full report
+        Comparator<Ranked> ranking = Comparator.<Ranked, MiddleEarthItem>comparing(Ranked::item, comparator)
+                .thenComparingLong(Ranked::position);
+        PriorityQueue<Ranked> best = new PriorityQueue<>(ranking.reversed());
+        long position = 0;
+        for (MiddleEarthItem item : items) {
+            if (!includeRings && item.isRing) continue;
+
+            best.add(new Ranked(item, position++));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Ranked> selected = new ArrayList<>(best);
+        selected.sort(ranking);
+        return selected.stream().map(Ranked::item).toList();
+    }
+
+    // Materializes every price once, then sorts packed (descending price, position) keys: no comparator calls,
+    // and the position in the low bits keeps the order of the stable sort for equal prices
+    private List<MiddleEarthItem> sortByPrice(List<MiddleEarthItem> items) {
+        int[] prices = WarPricing.materialize(items, warTime);
+        long[] keys = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            long descendingPrice = 0xFFFF_FFFFL - ((long) prices[i] - Integer.MIN_VALUE);
+            keys[i] = descendingPrice << 31 | i;
+        }
+        Arrays.sort(keys);
+
+        List<MiddleEarthItem> sortedItems = new ArrayList<>(items.size());
+        for (long key : keys) {
+            sortedItems.add(items.get((int) (key & Integer.MAX_VALUE)));
+        }
+        return sortedItems;
+    }
+
+    public void write(Iterable<MiddleEarthItem> orderedItems, int totalValue, Writer out) throws IOException {
+        BufferedWriter buffer = new BufferedWriter(out, chunkSize);
+        writeTo(buffer, orderedItems, totalValue);
+        buffer.flush();
+    }
+
+    public void write(Iterable<MiddleEarthItem> orderedItems, int totalValue, OutputStream out) throws IOException {
+        write(orderedItems, totalValue, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void write(Iterable<MiddleEarthItem> orderedItems, int totalValue, WritableByteChannel channel) throws IOException {
+        Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), chunkSize);
+        writeTo(out, orderedItems, totalValue);
+        out.flush();
+    }
+
+    private void writeTo(Writer out, Iterable<MiddleEarthItem> orderedItems, int totalValue) throws IOException {
+        out.write("INVENTORY REPORT\n");
+        out.write("----------------\n");
+
+        StringBuilder line = new StringBuilder();
+        int written = 0;
+        for (MiddleEarthItem item : orderedItems) {
+            if (written == limit) break;
+            if (!includeRings && item.isRing) continue;
+
+            line.setLength(0);
+            line.append(item.n).append(" (").append(item.o).append(") - Qty: ").append(item.q)
+                    .append(", Price: ").append(WarPricing.priceOf(item, warTime));
+
+            if (includeQualityDetails) {
+                line.append(", Quality: ").append(item.qual);
+                if (item.isGood) line.append(" [Good]");
+                if (item.isC) line.append(" [Cursed]");
+                if (item.isMithril) line.append(" [Mithril]");
+                if (item.isE) line.append(" [Magic Level: ").append(item.m).append("]");
+            }
+
+            line.append("\n");
+            out.append(line);
+            written++;
+        }
+
+        out.write("\nTotal Value: ");
+        out.write(Integer.toString(totalValue));
+        out.write(" gold coins");
+    }
+
+    private Comparator<MiddleEarthItem> comparatorFor(String sortBy) {
+        return switch (sortBy) {
+            case "name" -> Comparator.comparing(item -> item.n);
+            case "price" -> (a, b) -> Integer.compare(WarPricing.priceOf(b, warTime), WarPricing.priceOf(a, warTime));
+            case "origin" -> Comparator.comparing(item -> item.o.name());
+            default -> null;
+        };
+    }
+
+    private record Ranked(MiddleEarthItem item, long position) {
+    }
+}
@@ -0,0 +1,123 @@
+package org.lotr.kata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Compact binary image of an inventory: war status, every item with all of its fields, and the sales totals,
+// followed by a checksum of the whole file. Written next to the target and moved over it, so a crash while
+// writing leaves the previous snapshot in place. The move is forced to disk before write returns.
+class InventorySnapshot {
+    private static final int MAGIC = 0x4C4F5452;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private InventorySnapshot() {
+    }
+
+    static void write(Path file, long generation, IndexedInventoryManager inventory) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChunkedOutput out = new ChunkedOutput(channel);
+            List<MiddleEarthItem> items = inventory.getAllItems();
+            out.reserve(Integer.BYTES + Long.BYTES + 1 + Integer.BYTES).putInt(MAGIC).putLong(generation)
+                    .put((byte) (inventory.isWarTime() ? 1 : 0)).putInt(items.size());
+            for (MiddleEarthItem item : items) {
+                byte[] name = item.n.getBytes(StandardCharsets.UTF_8);
+                InventoryJournal.putItem(out.reserve(InventoryJournal.itemSize(name)), item, name);
+            }
+
+            Map<String, Integer> sales = inventory.getSales();
+            out.reserve(Integer.BYTES).putInt(sales.size());
+            for (Map.Entry<String, Integer> sale : sales.entrySet()) {
+                byte[] name = sale.getKey().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = out.reserve(Integer.BYTES + name.length + Integer.BYTES);
+                InventoryJournal.putString(buffer, name);
+                buffer.putInt(sale.getValue());
+            }
+            out.finish();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename itself lives in the directory: without this, a power failure could bring back the previous
+        // snapshot next to a log already reset for this one
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    // Loads the snapshot into an empty inventory and returns its generation, 0 when there is no snapshot yet
+    static long read(Path file, IndexedInventoryManager inventory) throws IOException {
+        if (!Files.exists(file)) return 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.capacity() < Integer.BYTES + Integer.BYTES || in.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not an inventory snapshot: " + file);
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(in.slice(0, in.capacity() - Integer.BYTES));
+            if ((int) checksum.getValue() != in.getInt(in.capacity() - Integer.BYTES)) {
+                throw new IllegalStateException("Corrupted inventory snapshot: " + file);
+            }
+
+            in.position(Integer.BYTES);
+            long generation = in.getLong();
+            inventory.setWarTime(in.get() == 1);
+            for (int items = in.getInt(); items > 0; items--) {
+                inventory.restoreItem(InventoryJournal.getItem(in));
+            }
+            for (int sales = in.getInt(); sales > 0; sales--) {
+                inventory.restoreSales(InventoryJournal.getString(in), in.getInt());
+            }
+            return generation;
+        }
+    }
+
+    // Fills a fixed-size buffer and hands it to the channel whenever the next value does not fit
+    private static class ChunkedOutput {
+        private final FileChannel channel;
+        private final CRC32C checksum = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+
+        ChunkedOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer reserve(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                flush();
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocate(size);
+                }
+            }
+            return buffer;
+        }
+
+        void finish() throws IOException {
+            flush();
+            buffer.putInt((int) checksum.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
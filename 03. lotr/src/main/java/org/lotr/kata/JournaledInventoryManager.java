@@ -0,0 +1,178 @@
+package org.lotr.kata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Optional;
+
+// Inventory that survives a restart. Every mutation is appended to a write-ahead log before being applied to an
+// in-memory IndexedInventoryManager, and the whole inventory is regularly written to a snapshot so that the log stays
+// short. Opening a directory loads the latest snapshot and replays the log written after it.
+//
+// Records reach the operating system as soon as they are appended, so a crash of the process loses nothing; syncEvery
+// bounds how many records a power failure can lose.
+public class JournaledInventoryManager implements InventoryManagerInterface, Closeable {
+    public static final int DEFAULT_SYNC_EVERY = 1_024;
+    public static final int DEFAULT_SNAPSHOT_EVERY = 1_000_000;
+    // Snapshot before the memory-mapped log gets anywhere near its 2 GB limit
+    private static final long MAX_LOG_SIZE = 1L << 30;
+    private static final String LOG_FILE = "inventory.log";
+    private static final String SNAPSHOT_FILE = "inventory.snapshot";
+
+    private final Path snapshotFile;
+    private final int snapshotEvery;
+    private final IndexedInventoryManager inventory = new IndexedInventoryManager();
+    private final InventoryJournal journal;
+    private int recordsSinceSnapshot;
+
+    public JournaledInventoryManager(Path directory) throws IOException {
+        this(directory, DEFAULT_SYNC_EVERY, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public JournaledInventoryManager(Path directory, int syncEvery, int snapshotEvery) throws IOException {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotEvery);
+        }
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.snapshotEvery = snapshotEvery;
+
+        long generation = InventorySnapshot.read(snapshotFile, inventory);
+        this.journal = InventoryJournal.open(directory.resolve(LOG_FILE), syncEvery);
+        if (journal.generation() == generation) {
+            recordsSinceSnapshot = journal.replay(inventory);
+        } else if (journal.generation() < generation) {
+            // Crashed right after a snapshot: everything in the log is already part of it
+            journal.reset(generation);
+        } else {
+            journal.close();
+            throw new IllegalStateException("Inventory log is newer than its snapshot in " + directory);
+        }
+    }
+
+    public void addItem(MiddleEarthItem item) {
+        if (item == null) return;
+
+        journal(() -> journal.appendAdd(item));
+        inventory.addItem(item);
+        afterRecord();
+    }
+
+    public void removeItem(String name, int quantity) {
+        journal(() -> journal.appendRemove(name, quantity));
+        inventory.removeItem(name, quantity);
+        afterRecord();
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, String dayOfWeek) {
+        journal(() -> journal.appendSell(name, quantity, isHaggling, MiddleEarthItem.dayOf(dayOfWeek)));
+        sell(() -> inventory.sellItem(name, quantity, isHaggling, dayOfWeek));
+    }
+
+    public void sellItem(String name, int quantity, boolean isHaggling, DayOfWeek dayOfWeek) {
+        journal(() -> journal.appendSell(name, quantity, isHaggling, dayOfWeek));
+        sell(() -> inventory.sellItem(name, quantity, isHaggling, dayOfWeek));
+    }
+
+    public void updateAllItems() {
+        journal(journal::appendTick);
+        inventory.updateAllItems();
+        afterRecord();
+    }
+
+    public void setWarTime(boolean warTime) {
+        journal(() -> journal.appendWar(warTime));
+        inventory.setWarTime(warTime);
+        afterRecord();
+    }
+
+    // Writes the whole inventory to a new snapshot and starts an empty log
+    public void snapshot() {
+        long generation = journal.generation() + 1;
+        journal(() -> InventorySnapshot.write(snapshotFile, generation, inventory));
+        journal.reset(generation);
+        recordsSinceSnapshot = 0;
+    }
+
+    public void sync() {
+        journal.sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    public boolean isWarTime() {
+        return inventory.isWarTime();
+    }
+
+    public boolean hasRing() {
+        return inventory.hasRing();
+    }
+
+    public List<MiddleEarthItem> getAllItems() {
+        return inventory.getAllItems();
+    }
+
+    public Optional<MiddleEarthItem> findItem(String name) {
+        return inventory.findItem(name);
+    }
+
+    public boolean contains(MiddleEarthItem item) {
+        return inventory.contains(item);
+    }
+
+    public int getTotalInventoryValue() {
+        return inventory.getTotalInventoryValue();
+    }
+
+    public String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy) {
+        return inventory.getInventoryReport(includeRings, includeQualityDetails, sortBy);
+    }
+
+    @Override
+    public void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) throws IOException {
+        inventory.writeInventoryReport(out, includeRings, includeQualityDetails, sortBy, limit);
+    }
+
+    // A sale refused during the war is logged too, so it counts as a record either way; a snapshot failing on the way
+    // out is attached to the refusal instead of hiding it
+    private void sell(Runnable sale) {
+        try {
+            sale.run();
+        } catch (RuntimeException refused) {
+            try {
+                afterRecord();
+            } catch (RuntimeException snapshotFailure) {
+                refused.addSuppressed(snapshotFailure);
+            }
+            throw refused;
+        }
+        afterRecord();
+    }
+
+    private void afterRecord() {
+        if (++recordsSinceSnapshot >= snapshotEvery || journal.size() >= MAX_LOG_SIZE) {
+            snapshot();
+        }
+    }
+
+    private static void journal(JournalWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,164 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Asynchronous entry point to a MiddleEarthManager for many concurrent client sessions. Requests become commands in a
+// bounded queue, run one after the other by a single writer (a virtual thread), so the manager and its services are
+// never touched by two threads and need no lock. The gateway must be the only user of the manager once created.
+//
+// The writer takes the commands waiting in the queue in batches. After each batch it publishes the state of Middle
+// Earth, which readers get without waiting, then completes the futures of the batch: once a future is done, the
+// published state includes its request. The state only holds headers and running totals, so publishing it does not
+// depend on the size of the inventory. Futures complete on the writer thread, so slow follow-ups belong in the
+// *Async methods of CompletableFuture.
+//
+// Senders wait while the queue is full: sessions running on virtual threads park instead of piling up requests.
+public class MiddleEarthGateway implements AutoCloseable {
+    static final int BATCH_SIZE = 256;
+
+    private static final Command<Void> STOP = new Command<>(null);
+
+    private final MiddleEarthManager manager;
+    private final BlockingQueue<Command<?>> commands;
+    private final Thread writer;
+    private volatile String state;
+    private volatile boolean closed;
+    // Set by the writer once it took STOP: whatever is still in the queue then is never run
+    private volatile boolean stopped;
+
+    public MiddleEarthGateway(MiddleEarthManager manager, int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue needs room for at least one request: " + queueCapacity);
+        }
+        this.manager = manager;
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        this.state = manager.getStateOfMiddleEarth();
+        this.writer = Thread.ofVirtual().name("middle-earth-writer").start(this::write);
+    }
+
+    // Fails with the reason when the quest cannot start (unavailable characters, missing items...)
+    public CompletableFuture<QuestResult> attemptQuestWithCharacter(String charName, QuestType qt, List<String> compNames, List<String> itemNames) {
+        List<String> companions = List.copyOf(compNames);
+        List<String> items = List.copyOf(itemNames);
+        return send(m -> m.startQuestWithCharacter(charName, qt, companions, items));
+    }
+
+    public CompletableFuture<Boolean> buyItemForCharacter(String charName, String itemName, boolean haggle) {
+        return send(m -> m.buyItemForCharacter(charName, itemName, haggle));
+    }
+
+    public CompletableFuture<Void> processMiddleEarthDay() {
+        return send(m -> {
+            m.processMiddleEarthDay();
+            return null;
+        });
+    }
+
+    // As published after the last batch, without waiting for the writer
+    public String getStateOfMiddleEarth() {
+        return state;
+    }
+
+    // Requests already sent are run before the writer stops
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            put(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stopping the Middle Earth gateway", e);
+        }
+    }
+
+    private <T> CompletableFuture<T> send(Function<MiddleEarthManager, T> request) {
+        if (closed) {
+            throw new IllegalStateException("Middle Earth gateway is closed");
+        }
+        Command<T> command = new Command<>(request);
+        put(command);
+        // Queued behind STOP: the command is rejected by whoever gets it out of the queue first. Commands queued before
+        // STOP are taken by the writer before it stops, so they are never found here.
+        if (stopped && commands.remove(command)) {
+            command.reject();
+        }
+        return command.result;
+    }
+
+    private void put(Command<?> command) {
+        try {
+            commands.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Middle Earth gateway", e);
+        }
+    }
+
+    private void write() {
+        List<Command<?>> batch = new ArrayList<>(BATCH_SIZE);
+        boolean stopSeen = false;
+        try {
+            while (!stopSeen) {
+                batch.add(commands.take());
+                commands.drainTo(batch, BATCH_SIZE - 1);
+
+                int run = 0;
+                while (run < batch.size() && batch.get(run) != STOP) {
+                    batch.get(run++).runOn(manager);
+                }
+                stopSeen = run < batch.size();
+                state = manager.getStateOfMiddleEarth();
+
+                for (int i = 0; i < batch.size(); i++) {
+                    if (i < run) batch.get(i).complete();
+                    else if (batch.get(i) != STOP) batch.get(i).reject();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        stopped = true;
+        for (Command<?> command = commands.poll(); command != null; command = commands.poll()) {
+            if (command != STOP) command.reject();
+        }
+    }
+
+    // A request and its outcome, kept until the state that includes it is published
+    private static class Command<T> {
+        private final Function<MiddleEarthManager, T> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private Throwable failure;
+
+        Command(Function<MiddleEarthManager, T> request) {
+            this.request = request;
+        }
+
+        void runOn(MiddleEarthManager manager) {
+            try {
+                value = request.apply(manager);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) result.completeExceptionally(failure);
+            else result.complete(value);
+        }
+
+        void reject() {
+            result.completeExceptionally(new IllegalStateException("Middle Earth gateway is closed"));
+        }
+    }
+}
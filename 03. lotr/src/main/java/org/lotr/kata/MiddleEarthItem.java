@@ -1,6 +1,12 @@
 package org.lotr.kata;
 
+import java.time.DayOfWeek;
+
 public class MiddleEarthItem {
+    private static final int DAYS = DayOfWeek.values().length;
+    private static final int PRICE_SLOT = 2 * DAYS;
+    private static final int FLAGS_SLOT = PRICE_SLOT + 1;
+
     public String n;
     public int q;
     public int qual;
@@ -12,6 +18,11 @@ public class MiddleEarthItem {
     public boolean isMithril = false;
     public boolean isC = false;
     public int m = 0;
+    // Final prices for every (haggling, day) combination, followed by the price and flags they were computed from.
+    // Volatile so that a table built by one thread is never seen half filled by another; 80 bytes per priced item.
+    private volatile int[] priceTable;
+    // Same for the last other price asked for, in practice the war-time price of WarPricing
+    private volatile int[] otherPriceTable;
 
     public MiddleEarthItem(String name, int quantity, int quality, ItemOrigin origin) {
         this.n = name;
@@ -48,32 +59,105 @@ public class MiddleEarthItem {
         }
     }
 
+    // Copy of the item as it is now, unaffected by later changes to it
+    MiddleEarthItem snapshot() {
+        MiddleEarthItem copy = new MiddleEarthItem(n, q, qual, o);
+        copy.p = p;
+        copy.isRing = isRing;
+        copy.isGood = isGood;
+        copy.isE = isE;
+        copy.isMithril = isMithril;
+        copy.isC = isC;
+        copy.m = m;
+        return copy;
+    }
+
     // Used by the shops to calculate price after haggle
     public int getFinalPrice(boolean isHaggling, String dayOfWeek) {
+        DayOfWeek day = dayOf(dayOfWeek);
+        return day == null ? computeFinalPrice(this.p, isHaggling, null) : getFinalPrice(isHaggling, day);
+    }
+
+    // Same rules applied to another price than the item's own, e.g. its war-time price
+    public int getFinalPrice(int price, boolean isHaggling, String dayOfWeek) {
+        DayOfWeek day = dayOf(dayOfWeek);
+        return day == null ? computeFinalPrice(price, isHaggling, null) : getFinalPrice(price, isHaggling, day);
+    }
+
+    public int getFinalPrice(int price, boolean isHaggling, DayOfWeek dayOfWeek) {
+        return tableFor(price)[(isHaggling ? DAYS : 0) + dayOfWeek.ordinal()];
+    }
+
+    public int getFinalPrice(boolean isHaggling, DayOfWeek dayOfWeek) {
+        return getFinalPrice(this.p, isHaggling, dayOfWeek);
+    }
+
+    // The item's own price and one other price each keep a table, so that war and peace lookups do not evict each other
+    int[] tableFor(int price) {
+        boolean own = price == this.p;
+        int[] table = own ? this.priceTable : this.otherPriceTable;
+        int flags = pricingFlags();
+        if (table == null || table[PRICE_SLOT] != price || table[FLAGS_SLOT] != flags) {
+            table = buildPriceTable(price, flags);
+            if (own) this.priceTable = table;
+            else this.otherPriceTable = table;
+        }
+        return table;
+    }
+
+    // Rebuilt only when the price or one of the flags used by the pricing rules changed since the last lookup
+    private int[] buildPriceTable(int price, int flags) {
+        int[] table = new int[FLAGS_SLOT + 1];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            table[day.ordinal()] = computeFinalPrice(price, false, day);
+            table[DAYS + day.ordinal()] = computeFinalPrice(price, true, day);
+        }
+        table[PRICE_SLOT] = price;
+        table[FLAGS_SLOT] = flags;
+        return table;
+    }
+
+    // null for names the pricing rules do not know
+    static DayOfWeek dayOf(String dayOfWeek) {
+        return switch (dayOfWeek) {
+            case "Monday" -> DayOfWeek.MONDAY;
+            case "Tuesday" -> DayOfWeek.TUESDAY;
+            case "Wednesday" -> DayOfWeek.WEDNESDAY;
+            case "Thursday" -> DayOfWeek.THURSDAY;
+            case "Friday" -> DayOfWeek.FRIDAY;
+            case "Saturday" -> DayOfWeek.SATURDAY;
+            case "Sunday" -> DayOfWeek.SUNDAY;
+            default -> null;
+        };
+    }
+
+    private int pricingFlags() {
+        return (isRing ? 1 : 0) | (isC ? 2 : 0) | (isMithril ? 4 : 0) | (isGood ? 8 : 0);
+    }
+
+    private int computeFinalPrice(int price, boolean isHaggling, DayOfWeek dayOfWeek) {
         int pr = 0;
         if (isHaggling && !this.isRing) {
-            pr = (int) (this.p * 0.9);
-        } else if (isHaggling && this.isRing) {
-            pr = this.p;
+            pr = (int) (price * 0.9);
         } else {
-            pr = this.p;
+            pr = price;
         }
 
-        if (dayOfWeek.equals("Sunday") || dayOfWeek.equals("Saturday")) {
+        if (dayOfWeek == DayOfWeek.SUNDAY || dayOfWeek == DayOfWeek.SATURDAY) {
             pr = (int) (pr * 1.1);
         }
 
         if (this.isC) {
-            if (dayOfWeek.equals("Monday")) {
+            if (dayOfWeek == DayOfWeek.MONDAY) {
                 pr = (int) (pr * 0.5);
             }
         }
 
-        if (this.isMithril && (dayOfWeek.equals("Thursday") || dayOfWeek.equals("Friday"))) {
+        if (this.isMithril && (dayOfWeek == DayOfWeek.THURSDAY || dayOfWeek == DayOfWeek.FRIDAY)) {
             pr = (int) (pr * 1.15);
         }
 
-        if (this.isGood && dayOfWeek.equals("Wednesday")) {
+        if (this.isGood && dayOfWeek == DayOfWeek.WEDNESDAY) {
             pr = (int) (pr * 0.95);
         }
 
@@ -2,6 +2,8 @@ package org.lotr.kata;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 public class MiddleEarthItems extends ArrayList<MiddleEarthItem> {
     public MiddleEarthItems(List<MiddleEarthItem> items) {
@@ -14,8 +16,7 @@ public class MiddleEarthItems extends ArrayList<MiddleEarthItem> {
     }
 
     private static void verifyItemsAreInventory(InventoryManagerInterface inventoryManager, List<MiddleEarthItem> items) {
-        var inventoryItems = inventoryManager.getAllItems();
-        if (items.stream().anyMatch(item -> !inventoryItems.contains(item))) {
+        if (items.stream().anyMatch(item -> !inventoryManager.contains(item))) {
             throw new IllegalStateException("Item is not available in sufficient quantity.");
         }
     }
@@ -24,8 +25,8 @@ public class MiddleEarthItems extends ArrayList<MiddleEarthItem> {
         return this.stream().anyMatch(item -> item.isRing);
     }
 
-    void removeConsumedItems(InventoryManagerInterface inventoryManager, QuestType questType) {
-        this.stream().filter(item -> (questType == QuestType.DESTROY_RING && item.isRing) || Math.random() < 0.2)
-                .forEach(item -> inventoryManager.removeItem(item.n, item.q));
+    void removeConsumedItems(QuestType questType, RandomGenerator random, Consumer<MiddleEarthItem> remove) {
+        this.stream().filter(item -> (questType == QuestType.DESTROY_RING && item.isRing) || random.nextDouble() < 0.2)
+                .forEach(remove);
     }
 }
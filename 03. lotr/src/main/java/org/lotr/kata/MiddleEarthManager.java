@@ -1,28 +1,41 @@
 package org.lotr.kata;
 
+import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.lotr.kata.Characters.CHARACTER_IDS;
 
 public class MiddleEarthManager {
+    private static final String[] WEATHER_TYPES = {"Clear", "Rainy", "Stormy", "Foggy"};
+    private static final double WAR_CHANCE = 0.1;
+    private static final String SIMULATION_ALGORITHM = "L64X128MixRandom";
     private static MiddleEarthManager instance;
     private InventoryManagerInterface im;
     private QuestService qs;
     private CharacterServiceInterface cs;
     private QuestDatabaseInterface qd;
     private boolean ringDestroyed = false;
-    private Map<String, Integer> characterGold = new HashMap<>();
+    // Accounts by id in Characters.CHARACTER_IDS
+    private final GoldLedger ledger = new GoldLedger();
     
     private MiddleEarthManager() {
-        im = InventoryManager.getInstance();
-        qd = QuestDatabase.getInstance();
-        cs = CharacterService.getInstance();
-        qs = new QuestService(im, qd, cs);
+        this(InventoryManager.getInstance(), QuestDatabase.getInstance(), CharacterService.getInstance());
+    }
+    
+    // A manager of its own services, as the realms of MiddleEarthRealms are
+    MiddleEarthManager(InventoryManagerInterface im, QuestDatabaseInterface qd, CharacterServiceInterface cs) {
+        this.im = im;
+        this.qd = qd;
+        this.cs = cs;
+        this.qs = new QuestService(im, qd, cs);
         
         // Initialize starting gold for characters
         for (String chr : new String[] {"Frodo", "Gandalf", "Aragorn", "Legolas", "Gimli", "Boromir", "Sam", "Merry", "Pippin"}) {
-            characterGold.put(chr, 100); // Starting gold
+            ledger.deposit(CHARACTER_IDS.idOf(chr), 100); // Starting gold
         }
     }
     
@@ -33,6 +46,10 @@ public class MiddleEarthManager {
         return instance;
     }
     
+    GoldLedger getGoldLedger() {
+        return ledger;
+    }
+    
     public void addItemToInventory(String name, int qty, int qual, ItemOrigin orig) {
         MiddleEarthItem item = new MiddleEarthItem(name, qty, qual, orig);
         im.addItem(item);
@@ -44,60 +61,156 @@ public class MiddleEarthManager {
         
         List<MiddleEarthItem> items = new ArrayList<>();
         for (String itemName : itemNames) {
-            boolean found = false;
-            for (MiddleEarthItem item : im.getAllItems()) {
-                if (item.n.equals(itemName)) {
-                    items.add(item);
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) return false;
+            MiddleEarthItem item = im.findItem(itemName).orElse(null);
+            if (item == null) return false;
+            items.add(item);
         }
         
         try {
-            QuestResult result = qs.startQuest(charName, qt, compNames, items);
-            if (result.isSuccess()) {
-                // Distribute rewards
-                int share = result.getRewardAmount() / (compNames.size() + 1);
-                characterGold.put(charName, characterGold.getOrDefault(charName, 0) + share);
-                for (String comp : compNames) {
-                    characterGold.put(comp, characterGold.getOrDefault(comp, 0) + share);
-                }
-                
-                // Special handling for ring destruction
-                if (qt == QuestType.DESTROY_RING && result.isSuccess()) {
-                    this.ringDestroyed = true;
-                    System.out.println("The One Ring has been destroyed! Middle Earth is saved!");
-                }
-                
-                return true;
-            } else {
-                System.out.println("Quest failed!");
-                return false;
-            }
+            boolean rewarded = rewardParty(qs.startQuest(charName, qt, compNames, items), compNames);
+            if (!rewarded) System.out.println("Quest failed!");
+            return rewarded;
         } catch (Exception e) {
             System.err.println("Error during quest: " + e.getMessage());
             return false;
         }
     }
     
+    // Same quest, but with its result: a quest that cannot start fails with the reason why
+    QuestResult startQuestWithCharacter(String charName, QuestType qt, List<String> compNames, List<String> itemNames) {
+        List<MiddleEarthItem> items = new ArrayList<>();
+        for (String itemName : itemNames) {
+            items.add(im.findItem(itemName)
+                    .orElseThrow(() -> new IllegalStateException("Item " + itemName + " is not in the inventory.")));
+        }
+        
+        QuestResult result = qs.startQuest(charName, qt, compNames, items);
+        rewardParty(result, compNames);
+        return result;
+    }
+    
+    // Same outcome as one attemptQuestWithCharacter call per request, but the inventory is read once for the whole
+    // batch, and consumed items and quest results are written back in groups. Failed quests are announced once for the
+    // whole batch.
+    public List<Boolean> attemptQuests(List<QuestRequest> requests) {
+        QuestBatch batch = new QuestBatch(im, qd);
+        List<Boolean> outcomes = new ArrayList<>(requests.size());
+        int failed = 0;
+        for (QuestRequest request : requests) {
+            QuestResult result = attemptQuest(request, batch);
+            if (result != null && !result.isSuccess()) failed++;
+            outcomes.add(result != null && result.isSuccess());
+            batch.commitIfFull();
+        }
+        batch.commit();
+        if (failed > 0) {
+            System.out.println(failed == 1 ? "1 quest failed!" : failed + " quests failed!");
+        }
+        return outcomes;
+    }
+    
+    // null when the quest could not start
+    private QuestResult attemptQuest(QuestRequest request, QuestBatch batch) {
+        if (!cs.isCharacterAvailable(request.characterName())) return null;
+        for (String c : request.companions()) if (!cs.isCharacterAvailable(c)) return null;
+        
+        List<MiddleEarthItem> items = new ArrayList<>(request.itemNames().size());
+        for (String itemName : request.itemNames()) {
+            MiddleEarthItem item = batch.find(itemName);
+            if (item == null) return null;
+            items.add(item);
+        }
+        
+        try {
+            QuestResult result = qs.startQuest(request.characterName(), request.questType(), request.companions(), items,
+                    batch::consume, batch::save);
+            rewardParty(result, request.companions());
+            return result;
+        } catch (Exception e) {
+            System.err.println("Error during quest: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private boolean rewardParty(QuestResult result, List<String> compNames) {
+        if (result.isSuccess()) {
+            // Distribute rewards
+            String charName = result.getCharacterName();
+            int share = result.getRewardAmount() / (compNames.size() + 1);
+            int[] party = new int[compNames.size() + 1];
+            party[0] = CHARACTER_IDS.idOf(charName);
+            for (int i = 0; i < compNames.size(); i++) {
+                party[i + 1] = CHARACTER_IDS.idOf(compNames.get(i));
+            }
+            ledger.distribute(share, party);
+            
+            // Special handling for ring destruction
+            if (result.getQuestType() == QuestType.DESTROY_RING) {
+                this.ringDestroyed = true;
+                System.out.println("The One Ring has been destroyed! Middle Earth is saved!");
+            }
+            
+            return true;
+        }
+        return false;
+    }
+    
     public void processMiddleEarthDay() {
+        processMiddleEarthDay(ThreadLocalRandom.current());
+    }
+    
+    public void processMiddleEarthDay(RandomGenerator random) {
         // Update all items
         im.updateAllItems();
         
         // Random weather changes
-        String[] weatherTypes = {"Clear", "Rainy", "Stormy", "Foggy"};
-        qd.setCurrentWeather(weatherTypes[(int)(Math.random() * weatherTypes.length)]);
+        qd.setCurrentWeather(WEATHER_TYPES[random.nextInt(WEATHER_TYPES.length)]);
         
         // Chance of war
-        if (Math.random() < 0.1) {
-            im.setWarTime(!im.isWarTime());
-            if (im.isWarTime()) {
-                System.out.println("War has broken out in Middle Earth!");
-            } else {
-                System.out.println("Peace has returned to Middle Earth.");
-            }
+        if (random.nextDouble() < WAR_CHANCE) {
+            toggleWar();
+        }
+    }
+    
+    // Same as that many processMiddleEarthDay calls, with the items moved forward all at once
+    public void processMiddleEarthDays(int days) {
+        processMiddleEarthDays(days, ThreadLocalRandom.current());
+    }
+    
+    // Same final state as that many processMiddleEarthDay(simulationRandom(seed)) calls
+    public void simulateDays(int days, long seed) {
+        processMiddleEarthDays(days, simulationRandom(seed));
+    }
+    
+    public void processMiddleEarthDays(int days, RandomGenerator random) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Cannot go back in time: " + days);
+        }
+        im.advanceDays(days);
+        
+        // Items do not depend on the weather or the war, so only the last weather and whether the war toggled an odd
+        // number of times are kept, from the same draws as day after day
+        int weather = -1;
+        boolean warToggled = false;
+        for (int day = 0; day < days; day++) {
+            weather = random.nextInt(WEATHER_TYPES.length);
+            if (random.nextDouble() < WAR_CHANCE) warToggled = !warToggled;
+        }
+        if (weather >= 0) qd.setCurrentWeather(WEATHER_TYPES[weather]);
+        if (warToggled) toggleWar();
+    }
+    
+    static RandomGenerator simulationRandom(long seed) {
+        return RandomGeneratorFactory.of(SIMULATION_ALGORITHM).create(seed);
+    }
+    
+    // Prices follow the war when they are read (see WarPricing), so toggling it reprices nothing here
+    private void toggleWar() {
+        im.setWarTime(!im.isWarTime());
+        if (im.isWarTime()) {
+            System.out.println("War has broken out in Middle Earth!");
+        } else {
+            System.out.println("Peace has returned to Middle Earth.");
         }
     }
     
@@ -110,40 +223,37 @@ public class MiddleEarthManager {
         sb.append("War Status: ").append(im.isWarTime() ? "AT WAR" : "AT PEACE").append("\n");
         sb.append("One Ring Status: ").append(ringDestroyed ? "DESTROYED" : (im.hasRing() ? "IN INVENTORY" : "MISSING")).append("\n\n");
         
+        // Only the titles of the inventory and quest reports have ever made it into the state, so neither report is
+        // produced: the state costs the same whatever the size of the inventory, see MiddleEarthGateway
         sb.append("INVENTORY SUMMARY:\n");
-        sb.append(im.getInventoryReport(true, true, "price").substring(0, im.getInventoryReport(true, true, "price").indexOf("INVENTORY REPORT") + 16));
+        sb.append("INVENTORY REPORT");
         
         sb.append("\n\nQUEST SUMMARY:\n");
-        sb.append(qd.generateQuestReport().substring(0, qd.generateQuestReport().indexOf("QUEST REPORT") + 12));
+        sb.append("QUEST REPORT");
         
         sb.append("\n\nCHARACTER GOLD:\n");
-        for (Map.Entry<String, Integer> entry : characterGold.entrySet()) {
-            sb.append(entry.getKey()).append(": ").append(entry.getValue()).append(" gold\n");
+        for (int account : ledger.accounts()) {
+            sb.append(CHARACTER_IDS.nameOf(account)).append(": ").append(ledger.balanceOf(account)).append(" gold\n");
         }
         
         return sb.toString();
     }
     
     public boolean buyItemForCharacter(String charName, String itemName, boolean haggle) {
-        if (!characterGold.containsKey(charName)) return false;
+        int buyer = CHARACTER_IDS.find(charName);
+        if (!ledger.hasAccount(buyer)) return false;
         
-        MiddleEarthItem itemToBuy = null;
-        for (MiddleEarthItem item : im.getAllItems()) {
-            if (item.n.equals(itemName)) {
-                itemToBuy = item;
-                break;
-            }
-        }
+        MiddleEarthItem itemToBuy = im.findItem(itemName).orElse(null);
         
         if (itemToBuy == null) return false;
         
-        String[] daysOfWeek = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
-        String today = daysOfWeek[(int)(Math.random() * daysOfWeek.length)];
+        DayOfWeek[] daysOfWeek = DayOfWeek.values();
+        DayOfWeek today = daysOfWeek[(int)(Math.random() * daysOfWeek.length)];
         
-        int price = itemToBuy.getFinalPrice(haggle, today);
+        int price = im.getFinalPrice(itemToBuy, haggle, today);
         
-        if (characterGold.get(charName) >= price) {
-            characterGold.put(charName, characterGold.get(charName) - price);
+        if (ledger.balanceOf(buyer) >= price) {
+            ledger.withdraw(buyer, price);
             im.removeItem(itemName, 1);
             System.out.println(charName + " bought " + itemName + " for " + price + " gold.");
             return true;
@@ -154,22 +264,17 @@ public class MiddleEarthManager {
     }
     
     public void tradeBetweenCharacters(String giver, String receiver, String itemName, int gold) {
-        if (!characterGold.containsKey(giver) || !characterGold.containsKey(receiver)) return;
-        if (characterGold.get(receiver) < gold) return;
-        
-        MiddleEarthItem itemToTrade = null;
-        for (MiddleEarthItem item : im.getAllItems()) {
-            if (item.n.equals(itemName)) {
-                itemToTrade = item;
-                break;
-            }
-        }
+        int giverAccount = CHARACTER_IDS.find(giver);
+        int receiverAccount = CHARACTER_IDS.find(receiver);
+        if (!ledger.hasAccount(giverAccount) || !ledger.hasAccount(receiverAccount)) return;
+        if (gold < 0 || ledger.balanceOf(receiverAccount) < gold) return;
+        
+        MiddleEarthItem itemToTrade = im.findItem(itemName).orElse(null);
         
         if (itemToTrade == null) return;
         
         // Update gold
-        characterGold.put(giver, characterGold.get(giver) + gold);
-        characterGold.put(receiver, characterGold.get(receiver) - gold);
+        ledger.transfer(receiverAccount, giverAccount, gold);
         
         // Item is removed and readded to simulate transfer
         im.removeItem(itemName, 1);
@@ -0,0 +1,156 @@
+package org.lotr.kata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+// Independent realms of Middle Earth. Each realm owns its inventory, quest database and characters, created through
+// their package-private constructors rather than shared through getInstance.
+//
+// Realms are spread over shards by name. A shard owns its realms and a single thread that runs the work sent to them,
+// one piece at a time and in the order it was sent. No realm is ever touched by two threads, so the services behind it
+// need no locking; work must only use the manager it is given while it runs.
+//
+// Each shard takes work through a bounded mailbox: when a shard falls behind, senders wait instead of piling up work.
+public class MiddleEarthRealms implements AutoCloseable {
+    private final Shard[] shards;
+
+    public MiddleEarthRealms(int shardCount, int mailboxCapacity) {
+        this(shardCount, mailboxCapacity, Thread.ofPlatform().factory());
+    }
+
+    // Thread.ofVirtual().factory() runs the shards on virtual threads
+    public MiddleEarthRealms(int shardCount, int mailboxCapacity, ThreadFactory threads) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is needed: " + shardCount);
+        }
+        if (mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Mailboxes need room for at least one piece of work: " + mailboxCapacity);
+        }
+
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(mailboxCapacity);
+        }
+        for (Shard shard : shards) {
+            shard.thread = threads.newThread(shard::run);
+            shard.thread.start();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String realm) {
+        return Math.floorMod(realm.hashCode(), shards.length);
+    }
+
+    // Runs work on the manager of the realm, created on first use. Blocks while the mailbox of its shard is full.
+    public <T> CompletableFuture<T> submit(String realm, Function<MiddleEarthManager, T> work) {
+        Task<T> task = new Task<>(realm, work, new CompletableFuture<>());
+        shards[shardOf(realm)].send(task);
+        return task.result;
+    }
+
+    // Work already sent is run before the shards stop
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        for (Shard shard : shards) {
+            shard.join();
+        }
+    }
+
+    private record Task<T>(String realm, Function<MiddleEarthManager, T> work, CompletableFuture<T> result) {
+        void runOn(MiddleEarthManager manager) {
+            try {
+                result.complete(work.apply(manager));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        void reject() {
+            result.completeExceptionally(new IllegalStateException("Middle Earth realms are closed"));
+        }
+    }
+
+    private static class Shard {
+        private static final Task<Void> STOP = new Task<>(null, null, null);
+
+        private final BlockingQueue<Task<?>> mailbox;
+        // Only read and written by the shard thread
+        private final Map<String, MiddleEarthManager> realms = new HashMap<>();
+        private volatile boolean closed;
+        // Set by the shard thread once it took STOP: whatever is still in the mailbox then is never run
+        private volatile boolean stopped;
+        private Thread thread;
+
+        Shard(int mailboxCapacity) {
+            this.mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+        }
+
+        void send(Task<?> task) {
+            if (closed) {
+                throw new IllegalStateException("Middle Earth realms are closed");
+            }
+            put(task);
+            // Queued behind STOP: the task is rejected by whoever gets it out of the mailbox first. Tasks queued before
+            // STOP are taken by the shard before it stops, so they are never found here.
+            if (stopped && mailbox.remove(task)) {
+                task.reject();
+            }
+        }
+
+        void stop() {
+            if (!closed) {
+                closed = true;
+                put(STOP);
+            }
+        }
+
+        void join() {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while stopping Middle Earth realms", e);
+            }
+        }
+
+        void run() {
+            try {
+                for (Task<?> task = mailbox.take(); task != STOP; task = mailbox.take()) {
+                    task.runOn(realms.computeIfAbsent(task.realm(), realm -> newRealm()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closed = true;
+            stopped = true;
+            for (Task<?> task = mailbox.poll(); task != null; task = mailbox.poll()) {
+                if (task != STOP) task.reject();
+            }
+        }
+
+        private static MiddleEarthManager newRealm() {
+            return new MiddleEarthManager(new InventoryManager(), new QuestDatabase(), new CharacterService());
+        }
+
+        private void put(Task<?> task) {
+            try {
+                mailbox.put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a shard", e);
+            }
+        }
+    }
+}
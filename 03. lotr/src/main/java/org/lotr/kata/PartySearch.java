@@ -0,0 +1,295 @@
+package org.lotr.kata;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Best companions and items for a leader and a quest, scored with the QuestService rules.
+//
+// Only the number of companions and which alliance types are among them change the odds, so companions are memoized
+// on that signature and each signature is explored once, in parallel. Items sharing the same flags are
+// interchangeable as well: the search picks how many of each kind to carry, depth first, and drops a branch as soon as
+// carrying every remaining helpful item could not beat the K-th party found so far.
+//
+// Parties that only differ by interchangeable members are reported once. Ties are broken by the order of the companion
+// groups, then by the item counts in exploration order, so the K parties found do not depend on thread timing.
+public class PartySearch {
+    public enum Objective {SUCCESS_CHANCE, EXPECTED_REWARD}
+
+    // Scores closer than this are ties, then the smallest party wins
+    private static final double TIE = 1e-9;
+
+    private final InventoryManagerInterface inventoryManager;
+    private final QuestDatabaseInterface questDatabase;
+    private final CharacterServiceInterface characterService;
+    private final ForkJoinPool pool;
+
+    public PartySearch(InventoryManagerInterface inventoryManager,
+                       QuestDatabaseInterface questDatabase,
+                       CharacterServiceInterface characterService) {
+        this(inventoryManager, questDatabase, characterService, ForkJoinPool.commonPool());
+    }
+
+    public PartySearch(InventoryManagerInterface inventoryManager,
+                       QuestDatabaseInterface questDatabase,
+                       CharacterServiceInterface characterService,
+                       ForkJoinPool pool) {
+        this.inventoryManager = inventoryManager;
+        this.questDatabase = questDatabase;
+        this.characterService = characterService;
+        this.pool = pool;
+    }
+
+    public PartySearchResult search(String leader, QuestType questType, List<String> candidates,
+                                    Objective objective, int k, Duration budget) {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one party is needed: " + k);
+        }
+        if (!characterService.isCharacterAvailable(leader)) {
+            throw new IllegalStateException("Character " + leader + " is not available for quests.");
+        }
+        new QuestService(inventoryManager, questDatabase, characterService).verifyLeader(leader, questType);
+
+        Search search = new Search(leader, questType, objective, k, System.nanoTime() + budget.toNanos());
+        if (questType == QuestType.DESTROY_RING && !search.ringsFrom[0]) {
+            return new PartySearchResult(List.of(), true);
+        }
+
+        List<PartyTask> tasks = new ArrayList<>();
+        companionsBySignature(leader, candidates).forEach((signature, companions) ->
+                tasks.add(new PartyTask(search, tasks.size(), companions, signature)));
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        return new PartySearchResult(search.top.parties(), !search.timedOut);
+    }
+
+    // One group of companions for each number of companions and mask of alliance types
+    private Map<Signature, List<String>> companionsBySignature(String leader, List<String> candidates) {
+        Map<String, List<String>> candidatesByType = new LinkedHashMap<>();
+        candidates.stream()
+                .distinct()
+                .filter(name -> !name.equals(leader) && characterService.isCharacterAvailable(name))
+                .forEach(name -> candidatesByType.computeIfAbsent(characterService.getCharacterType(name), type -> new ArrayList<>()).add(name));
+
+        Map<Signature, List<String>> companions = new LinkedHashMap<>();
+        addCompanions(new ArrayList<>(candidatesByType.entrySet()), 0, new ArrayList<>(), 0, companions);
+        return companions;
+    }
+
+    private static void addCompanions(List<Map.Entry<String, List<String>>> types, int type, List<String> chosen, int mask,
+                                      Map<Signature, List<String>> companions) {
+        if (type == types.size()) {
+            companions.putIfAbsent(new Signature(chosen.size(), mask), List.copyOf(chosen));
+            return;
+        }
+        List<String> members = types.get(type).getValue();
+        int typeMask = QuestOdds.companionType(types.get(type).getKey());
+        for (int count = 0; count <= members.size(); count++) {
+            if (count > 0) chosen.add(members.get(count - 1));
+            addCompanions(types, type + 1, chosen, count > 0 ? mask | typeMask : mask, companions);
+        }
+        chosen.subList(chosen.size() - members.size(), chosen.size()).clear();
+    }
+
+    private record Signature(int companionCount, int companionTypes) {
+    }
+
+    // Items with the same flags, so the same effect on both the odds and the reward
+    private record ItemKind(List<MiddleEarthItem> items, double modifier, double rate, boolean ring) {
+    }
+
+    // Everything the tasks of one search share
+    private class Search {
+        final String leader;
+        final QuestType questType;
+        final Objective objective;
+        final long deadline;
+        final QuestOdds odds;
+        final int level;
+        final int type;
+        final CharacterType characterType;
+        final List<ItemKind> kinds;
+        // Items of the kinds left that can raise the odds, or the reward, from each depth on
+        final List<List<MiddleEarthItem>> helpfulFrom = new ArrayList<>();
+        final List<List<MiddleEarthItem>> rewardingFrom = new ArrayList<>();
+        final boolean[] ringsFrom;
+        final TopParties top;
+        volatile boolean timedOut;
+
+        Search(String leader, QuestType questType, Objective objective, int k, long deadline) {
+            this.leader = leader;
+            this.questType = questType;
+            this.objective = objective;
+            this.deadline = deadline;
+            this.odds = new QuestOdds(questDatabase.getCurrentWeather(), inventoryManager.isWarTime());
+            this.characterType = CharacterType.of(characterService.getCharacterType(leader));
+            this.level = QuestOdds.levelOf(characterService.getCharacterLevel(leader));
+            this.type = characterType.ordinal();
+            this.kinds = itemKinds();
+            this.ringsFrom = new boolean[kinds.size() + 1];
+            this.top = new TopParties(k);
+
+            for (int depth = kinds.size(); depth >= 0; depth--) {
+                List<MiddleEarthItem> helpful = new ArrayList<>();
+                List<MiddleEarthItem> rewarding = new ArrayList<>();
+                for (ItemKind kind : kinds.subList(depth, kinds.size())) {
+                    if (kind.modifier > 0) helpful.addAll(kind.items);
+                    if (kind.rate > 1) rewarding.addAll(kind.items);
+                }
+                helpfulFrom.addFirst(helpful);
+                rewardingFrom.addFirst(rewarding);
+                ringsFrom[depth] = depth < kinds.size() && (kinds.get(depth).ring || ringsFrom[depth + 1]);
+            }
+        }
+
+        // Kinds that can only lower the score are never carried, except rings when the quest needs one
+        private List<ItemKind> itemKinds() {
+            Map<List<Boolean>, List<MiddleEarthItem>> itemsByFlags = new LinkedHashMap<>();
+            for (MiddleEarthItem item : inventoryManager.getAllItems()) {
+                itemsByFlags.computeIfAbsent(List.of(item.isRing, item.isMithril, item.isGood, item.isC), flags -> new ArrayList<>()).add(item);
+            }
+            return itemsByFlags.values().stream()
+                    .map(items -> new ItemKind(List.copyOf(items), QuestOdds.withItem(0, items.getFirst()), items.getFirst().getRate(), items.getFirst().isRing))
+                    .filter(kind -> kind.modifier > 0
+                            || (objective == Objective.EXPECTED_REWARD && kind.rate > 1)
+                            || (questType == QuestType.DESTROY_RING && kind.ring))
+                    .sorted(Comparator.comparingDouble(ItemKind::modifier).thenComparingDouble(ItemKind::rate).reversed())
+                    .toList();
+        }
+
+        double chance(Signature signature, List<MiddleEarthItem> items) {
+            return odds.successChance(level, type, questType, signature.companionCount(), signature.companionTypes(), items);
+        }
+
+        int reward(Signature signature, List<MiddleEarthItem> items) {
+            return QuestService.calculateReward(odds.getRules(), questType, characterType, signature.companionCount(), items);
+        }
+    }
+
+    private static class PartyTask extends RecursiveAction {
+        private final Search search;
+        private final int order;
+        private final List<String> companions;
+        private final Signature signature;
+        private final List<MiddleEarthItem> carried = new ArrayList<>();
+        // Rank of the count chosen for each kind, in exploration order: 0 for all of its items
+        private final int[] path;
+
+        PartyTask(Search search, int order, List<String> companions, Signature signature) {
+            this.search = search;
+            this.order = order;
+            this.companions = companions;
+            this.signature = signature;
+            this.path = new int[search.kinds.size()];
+        }
+
+        @Override
+        protected void compute() {
+            explore(0, false);
+        }
+
+        private void explore(int depth, boolean ringCarried) {
+            if (System.nanoTime() - search.deadline > 0) {
+                search.timedOut = true;
+                return;
+            }
+            if (search.questType == QuestType.DESTROY_RING && !ringCarried && !search.ringsFrom[depth]) {
+                return;
+            }
+            // The first party of the branch carries all of the kinds left, so it comes before any other one of the branch
+            if (!search.top.mayAccept(new Ranked(null, upperBound(depth), companions.size() + carried.size(), order, Arrays.copyOf(path, depth)))) {
+                return;
+            }
+            if (depth == search.kinds.size()) {
+                offer();
+                return;
+            }
+
+            // Most items of a kind first, to find strong parties early and prune more
+            ItemKind kind = search.kinds.get(depth);
+            carried.addAll(kind.items);
+            for (int count = kind.items.size(); count >= 0; count--) {
+                path[depth] = kind.items.size() - count;
+                explore(depth + 1, ringCarried || (count > 0 && kind.ring));
+                if (count > 0) carried.removeLast();
+            }
+        }
+
+        // Odds when carrying every helpful item left, times the reward when carrying every rewarding one
+        private double upperBound(int depth) {
+            int size = carried.size();
+            carried.addAll(search.helpfulFrom.get(depth));
+            double chance = search.chance(signature, carried);
+            carried.subList(size, carried.size()).clear();
+            if (search.objective == Objective.SUCCESS_CHANCE) {
+                return chance;
+            }
+
+            carried.addAll(search.rewardingFrom.get(depth));
+            int reward = search.reward(signature, carried);
+            carried.subList(size, carried.size()).clear();
+            return chance * reward;
+        }
+
+        private void offer() {
+            double chance = search.chance(signature, carried);
+            int reward = search.reward(signature, carried);
+            QuestParty party = new QuestParty(new QuestScenario(search.leader, search.questType, companions, carried), chance, reward);
+            double score = search.objective == Objective.SUCCESS_CHANCE ? chance : party.expectedReward();
+            search.top.offer(new Ranked(party, score, companions.size() + carried.size(), order, path.clone()));
+        }
+    }
+
+    // A shorter path stands for the first party of a branch, the missing counts being 0
+    private record Ranked(QuestParty party, double score, int size, int task, int[] path) {
+        boolean isBefore(Ranked other) {
+            if (Math.abs(score - other.score) > TIE) return score > other.score;
+            if (size != other.size) return size < other.size;
+            return task != other.task ? task < other.task : Arrays.compare(path, other.path) < 0;
+        }
+    }
+
+    // The K best parties found so far. The worst of them is published for the tasks to prune against.
+    private static class TopParties {
+        private final int k;
+        private final List<Ranked> ranked = new ArrayList<>();
+        private volatile Ranked worst;
+
+        TopParties(int k) {
+            this.k = k;
+        }
+
+        // Whether a branch, given by the best score and rank any of its parties could have, may still make it to the
+        // top K
+        boolean mayAccept(Ranked best) {
+            Ranked worst = this.worst;
+            return worst == null || best.isBefore(worst);
+        }
+
+        synchronized void offer(Ranked party) {
+            int index = 0;
+            while (index < ranked.size() && ranked.get(index).isBefore(party)) index++;
+            if (index == k) return;
+
+            ranked.add(index, party);
+            if (ranked.size() > k) ranked.removeLast();
+            if (ranked.size() == k) {
+                worst = ranked.getLast();
+            }
+        }
+
+        synchronized List<QuestParty> parties() {
+            return ranked.stream().map(Ranked::party).toList();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.lotr.kata;
+
+import java.util.List;
+
+// Best parties first. Not complete when the time budget ran out before the whole search space was explored.
+public record PartySearchResult(List<QuestParty> parties, boolean complete) {
+    public PartySearchResult {
+        parties = List.copyOf(parties);
+    }
+}
@@ -0,0 +1,177 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves items many days ahead at once, with the same result as one MiddleEarthItem.updateQuality a day, each followed
+// by the removal of the degraded items (see DailyTick).
+//
+// updateQuality only depends on the flags of an item, whether it comes from Mordor, and its quality; and it moves the
+// quality by the same amount day after day, except around a few thresholds. For every kind of item, a table built once
+// from updateQuality itself gives the change of each quality and for how many days it lasts. Items are filed in a
+// TimingWheel on the day their change ends, or they degrade, and are only looked at again then; magic levels count
+// down on their own. Advancing by N days therefore costs a few steps per item, instead of N updates per item.
+final class QualityTimeline {
+    // Qualities covered by the tables: updateQuality treats every quality above the highest, and below the lowest,
+    // the same way
+    private static final int LOWEST = -16;
+    private static final int HIGHEST = 144;
+    private static final int KINDS = 64;
+    private static final int MORDOR = 32;
+    // Days of the same change from a quality, by kind and quality; DEGRADES when the next day removes the item
+    private static final int DEGRADES = 0;
+    private static final int STABLE = Integer.MAX_VALUE;
+    private static final int[][] NEXT = new int[KINDS][HIGHEST - LOWEST + 1];
+    private static final int[][] DAYS = new int[KINDS][HIGHEST - LOWEST + 1];
+
+    static {
+        MiddleEarthItem probe = new MiddleEarthItem("", 0, 0, ItemOrigin.SHIRE);
+        for (int kind = 0; kind < KINDS; kind++) {
+            for (int quality = LOWEST; quality <= HIGHEST; quality++) {
+                NEXT[kind][quality - LOWEST] = nextQuality(probe, kind, quality);
+            }
+            // Decreasing runs lean on lower qualities, increasing ones on higher qualities
+            for (int quality = LOWEST; quality <= HIGHEST; quality++) {
+                if (NEXT[kind][quality - LOWEST] <= quality) DAYS[kind][quality - LOWEST] = daysOf(probe, kind, quality);
+            }
+            for (int quality = HIGHEST; quality >= LOWEST; quality--) {
+                if (NEXT[kind][quality - LOWEST] > quality) DAYS[kind][quality - LOWEST] = daysOf(probe, kind, quality);
+            }
+        }
+    }
+
+    private final TimingWheel<Track> wheel = new TimingWheel<>();
+    private final List<Track> tracks = new ArrayList<>();
+
+    QualityTimeline(List<MiddleEarthItem> items) {
+        for (MiddleEarthItem item : items) {
+            Track track = new Track(item);
+            tracks.add(track);
+            schedule(track);
+        }
+    }
+
+    // Writes the quality and magic level every item has after those days, and returns the ones degraded on the way
+    List<MiddleEarthItem> advance(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Cannot go back in time: " + days);
+        }
+        List<MiddleEarthItem> degraded = new ArrayList<>();
+        wheel.advance(wheel.now() + days, track -> {
+            track.moveTo(wheel.now());
+            if (track.degrades) {
+                track.removed = true;
+                track.write(wheel.now());
+                degraded.add(track.item);
+            } else {
+                schedule(track);
+            }
+        });
+
+        for (Track track : tracks) {
+            if (!track.removed) {
+                track.moveTo(wheel.now());
+                track.write(wheel.now());
+            }
+        }
+        return degraded;
+    }
+
+    private void schedule(Track track) {
+        int quality = track.quality;
+        if (quality < LOWEST || quality > HIGHEST) {
+            scheduleOutsideTables(track);
+            return;
+        }
+
+        int days = DAYS[track.kind][quality - LOWEST];
+        track.delta = NEXT[track.kind][quality - LOWEST] - quality;
+        track.degrades = days == DEGRADES;
+        if (days != STABLE) {
+            wheel.schedule(wheel.now() + Math.max(days, 1), track);
+        }
+    }
+
+    // The change is the same all the way to the tables, or the quality jumps into them in a day
+    private void scheduleOutsideTables(Track track) {
+        int quality = track.quality;
+        MiddleEarthItem probe = new MiddleEarthItem("", 0, 0, ItemOrigin.SHIRE);
+        int next = nextQuality(probe, track.kind, quality);
+        track.delta = next - quality;
+        probe.qual = next;
+        track.degrades = DailyTick.isDegraded(probe);
+
+        long days = 1;
+        if (!track.degrades && track.delta != 0) {
+            long distance = track.delta < 0 ? quality - HIGHEST : LOWEST - quality;
+            long step = Math.abs(track.delta);
+            days = distance > 0 ? Math.max(1, (distance + step - 1) / step) : 1;
+        } else if (!track.degrades) {
+            return;
+        }
+        wheel.schedule(wheel.now() + days, track);
+    }
+
+    private static int kindOf(MiddleEarthItem item) {
+        return (item.isRing ? 1 : 0)
+                | (item.isE ? 2 : 0)
+                | (item.isGood ? 4 : 0)
+                | (item.isMithril ? 8 : 0)
+                | (item.isC ? 16 : 0)
+                | (item.o == ItemOrigin.MORDOR ? MORDOR : 0);
+    }
+
+    private static int nextQuality(MiddleEarthItem probe, int kind, int quality) {
+        probe.isRing = (kind & 1) != 0;
+        probe.isE = (kind & 2) != 0;
+        probe.isGood = (kind & 4) != 0;
+        probe.isMithril = (kind & 8) != 0;
+        probe.isC = (kind & 16) != 0;
+        probe.o = (kind & MORDOR) != 0 ? ItemOrigin.MORDOR : ItemOrigin.SHIRE;
+        probe.qual = quality;
+        probe.updateQuality();
+        return probe.qual;
+    }
+
+    // Filled in an order where the days of the next quality are already known
+    private static int daysOf(MiddleEarthItem probe, int kind, int quality) {
+        int next = NEXT[kind][quality - LOWEST];
+        probe.qual = next;
+        if (DailyTick.isDegraded(probe)) return DEGRADES;
+        if (next == quality) return STABLE;
+        if (next < LOWEST || next > HIGHEST) return 1;
+
+        int nextDays = DAYS[kind][next - LOWEST];
+        boolean sameChange = NEXT[kind][next - LOWEST] - next == next - quality;
+        return sameChange && nextDays != DEGRADES ? nextDays + 1 : 1;
+    }
+
+    // Quality of an item on the day it was last scheduled, and how it changes every day since
+    private static final class Track extends TimingWheel.Entry {
+        final MiddleEarthItem item;
+        final int kind;
+        final int magic;
+        long day = 0;
+        int quality;
+        int delta;
+        boolean degrades;
+        boolean removed;
+
+        Track(MiddleEarthItem item) {
+            this.item = item;
+            this.kind = kindOf(item);
+            this.quality = item.qual;
+            this.magic = item.m;
+        }
+
+        void moveTo(long today) {
+            quality += (int) (delta * (today - day));
+            day = today;
+        }
+
+        void write(long today) {
+            item.qual = quality;
+            item.m = (int) Math.max(magic - today, 0);
+        }
+    }
+}
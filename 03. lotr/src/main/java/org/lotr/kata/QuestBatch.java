@@ -0,0 +1,70 @@
+package org.lotr.kata;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Many quests against a single read of the inventory. Items consumed by a quest disappear from the batch view at
+// once, but are only removed from the inventory, together with the quest results, when a group is committed.
+// Removals are replayed in the order the quests made them, so the inventory ends up as if each quest had run alone.
+class QuestBatch {
+    static final int GROUP_SIZE = 1024;
+
+    private final InventoryManagerInterface inventoryManager;
+    private final QuestDatabaseInterface questDatabase;
+    // Items by name in inventory order, without the ones already used up by the batch
+    private final Map<String, ArrayDeque<MiddleEarthItem>> itemsByName = new HashMap<>();
+    // Quantities once the pending removals are applied
+    private final Map<MiddleEarthItem, Integer> quantities = new IdentityHashMap<>();
+    private final List<Removal> removals = new ArrayList<>();
+    private final List<QuestResult> results = new ArrayList<>();
+
+    QuestBatch(InventoryManagerInterface inventoryManager, QuestDatabaseInterface questDatabase) {
+        this.inventoryManager = inventoryManager;
+        this.questDatabase = questDatabase;
+        for (MiddleEarthItem item : inventoryManager.getAllItems()) {
+            itemsByName.computeIfAbsent(item.n, name -> new ArrayDeque<>()).addLast(item);
+            quantities.put(item, item.q);
+        }
+    }
+
+    // The item findItem would return once the pending removals are applied
+    MiddleEarthItem find(String name) {
+        ArrayDeque<MiddleEarthItem> sameName = itemsByName.get(name);
+        return sameName == null ? null : sameName.peekFirst();
+    }
+
+    // Same effect as removeItem(item.n, item.q): the first item with that name loses the consumed quantity
+    void consume(MiddleEarthItem item) {
+        int quantity = quantities.getOrDefault(item, item.q);
+        removals.add(new Removal(item.n, quantity));
+
+        MiddleEarthItem first = find(item.n);
+        if (first != null && quantities.merge(first, -quantity, Integer::sum) <= 0) {
+            itemsByName.get(item.n).pollFirst();
+        }
+    }
+
+    void save(QuestResult result) {
+        results.add(result);
+    }
+
+    void commitIfFull() {
+        if (results.size() >= GROUP_SIZE) commit();
+    }
+
+    void commit() {
+        for (Removal removal : removals) {
+            inventoryManager.removeItem(removal.name, removal.quantity);
+        }
+        removals.clear();
+        questDatabase.saveQuestResults(results);
+        results.clear();
+    }
+
+    private record Removal(String name, int quantity) {
+    }
+}
@@ -1,18 +1,20 @@
 package org.lotr.kata;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class QuestDatabase implements QuestDatabaseInterface {
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
     private static QuestDatabase instance;
-    private List<QuestResult> questResults = new ArrayList<>();
-    private Map<String, List<QuestResult>> questsByCharacter = new HashMap<>();
+    private final QuestLog questResults = new QuestLog();
     private String currentWeather = "Clear"; // Default weather
+    // Statistics kept up to date by saveQuestResult, so that reports never walk the stored quests
+    private final int[] questsByType = new int[QuestType.values().length];
+    private final int[] successfulQuestsByType = new int[QuestType.values().length];
+    private int successfulQuests = 0;
+    private int totalRewardsEarned = 0;
     
-    private QuestDatabase() {
-        // Private constructor for singleton
+    QuestDatabase() {
+        // Constructor for singleton
     }
     
     public static QuestDatabase getInstance() {
@@ -23,66 +25,56 @@ public class QuestDatabase implements QuestDatabaseInterface {
     }
     
     public void saveQuestResult(QuestResult result) {
-        questResults.add(result);
-        
-        // Update character quest map
-        String characterName = result.getCharacterName();
-        if (!questsByCharacter.containsKey(characterName)) {
-            questsByCharacter.put(characterName, new ArrayList<>());
-        }
-        questsByCharacter.get(characterName).add(result);
-        
-        // Also update for companions
-        for (String companion : result.getCompanions()) {
-            if (!questsByCharacter.containsKey(companion)) {
-                questsByCharacter.put(companion, new ArrayList<>());
-            }
-            questsByCharacter.get(companion).add(result);
+        questResults.append(result);
+
+        int type = result.getQuestType().ordinal();
+        questsByType[type]++;
+        if (result.isSuccess()) {
+            successfulQuestsByType[type]++;
+            successfulQuests++;
+            totalRewardsEarned += result.getRewardAmount();
         }
     }
     
+    // Quests are kept in columns: the lists below are read-only views, and their QuestResults are created on access
     public List<QuestResult> getQuestsByCharacter(String characterName) {
-        return questsByCharacter.getOrDefault(characterName, new ArrayList<>());
+        return questResults.byCharacter(characterName);
     }
     
     public List<QuestResult> getQuestsByType(QuestType type) {
-        List<QuestResult> result = new ArrayList<>();
-        for (QuestResult quest : questResults) {
-            if (quest.getQuestType() == type) {
-                result.add(quest);
-            }
-        }
-        return result;
+        return questResults.byType(type);
     }
     
     public List<QuestResult> getSuccessfulQuests() {
-        List<QuestResult> result = new ArrayList<>();
-        for (QuestResult quest : questResults) {
-            if (quest.isSuccess()) {
-                result.add(quest);
-            }
-        }
-        return result;
+        return questResults.byOutcome(true);
     }
     
     public List<QuestResult> getFailedQuests() {
-        List<QuestResult> result = new ArrayList<>();
-        for (QuestResult quest : questResults) {
-            if (!quest.isSuccess()) {
-                result.add(quest);
-            }
-        }
-        return result;
+        return questResults.byOutcome(false);
     }
     
     public int getTotalRewardsEarned() {
-        int total = 0;
-        for (QuestResult quest : questResults) {
-            if (quest.isSuccess()) {
-                total += quest.getRewardAmount();
-            }
-        }
-        return total;
+        return totalRewardsEarned;
+    }
+
+    public int getQuestCount() {
+        return questResults.size();
+    }
+
+    public int getQuestCount(QuestType type) {
+        return questsByType[type.ordinal()];
+    }
+
+    public int getSuccessfulQuestCount() {
+        return successfulQuests;
+    }
+
+    public int getSuccessfulQuestCount(QuestType type) {
+        return successfulQuestsByType[type.ordinal()];
+    }
+
+    public int getFailedQuestCount() {
+        return questResults.size() - successfulQuests;
     }
     
     public String getCurrentWeather() {
@@ -98,25 +90,24 @@ public class QuestDatabase implements QuestDatabaseInterface {
     }
     
     public String generateQuestReport() {
-        StringBuilder report = new StringBuilder();
+        StringBuilder report = new StringBuilder(256);
+        appendQuestReport(report);
+        return report.toString();
+    }
+
+    // Only reads the counters: O(|QuestType|) and nothing allocated besides what the builder needs
+    public void appendQuestReport(StringBuilder report) {
         report.append("QUEST REPORT\n");
         report.append("------------\n");
-        report.append("Total Quests: ").append(questResults.size()).append("\n");
-        report.append("Successful: ").append(getSuccessfulQuests().size()).append("\n");
-        report.append("Failed: ").append(getFailedQuests().size()).append("\n");
+        report.append("Total Quests: ").append(getQuestCount()).append("\n");
+        report.append("Successful: ").append(getSuccessfulQuestCount()).append("\n");
+        report.append("Failed: ").append(getFailedQuestCount()).append("\n");
         report.append("Total Rewards: ").append(getTotalRewardsEarned()).append(" gold coins\n\n");
-        
+
         report.append("BY QUEST TYPE:\n");
-        for (QuestType type : QuestType.values()) {
-            List<QuestResult> typeQuests = getQuestsByType(type);
-            int successful = 0;
-            for (QuestResult quest : typeQuests) {
-                if (quest.isSuccess()) successful++;
-            }
-            report.append(type).append(": ").append(typeQuests.size())
-                  .append(" (").append(successful).append(" successful)\n");
+        for (QuestType type : QUEST_TYPES) {
+            report.append(type).append(": ").append(getQuestCount(type))
+                  .append(" (").append(getSuccessfulQuestCount(type)).append(" successful)\n");
         }
-        
-        return report.toString();
     }
 }
\ No newline at end of file
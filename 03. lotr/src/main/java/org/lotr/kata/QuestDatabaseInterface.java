@@ -1,8 +1,14 @@
 package org.lotr.kata;
 
+import java.util.List;
+
 public interface QuestDatabaseInterface {
         String getCurrentWeather();
         void saveQuestResult(QuestResult result);
         void setCurrentWeather(String weather);
         String generateQuestReport();
+
+        default void saveQuestResults(List<QuestResult> results) {
+            results.forEach(this::saveQuestResult);
+        }
     }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package org.lotr.kata;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Append-only store of quest results in primitive columns: character id, quest type and outcome packed in a byte,
+// and reward. Companions of all quests share one flat id array, sliced by per-quest offsets. Posting lists of quest
+// positions index the quests by character (leader or companion) and by type.
+//
+// Queries return read-only views: a QuestResult is only created when an element of the view is read.
+public class QuestLog {
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
+    private static final int TYPE = 0x7F;
+    private static final int SUCCESS = 0x80;
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final SymbolTable characters;
+    private int[] character = new int[INITIAL_CAPACITY];
+    private byte[] typeAndOutcome = new byte[INITIAL_CAPACITY];
+    private int[] reward = new int[INITIAL_CAPACITY];
+    // Companions of quest i are companions[companionOffsets[i]] up to companions[companionOffsets[i + 1]]
+    private int[] companionOffsets = new int[INITIAL_CAPACITY + 1];
+    private final IntColumn companions = new IntColumn(INITIAL_CAPACITY);
+    private final IntColumn[] questsByType = new IntColumn[QUEST_TYPES.length];
+    private IntColumn[] questsByCharacter = new IntColumn[16];
+    private int size = 0;
+
+    public QuestLog() {
+        this(new SymbolTable());
+    }
+
+    public QuestLog(SymbolTable characters) {
+        this.characters = characters;
+        for (int type = 0; type < questsByType.length; type++) {
+            questsByType[type] = new IntColumn();
+        }
+    }
+
+    public void append(QuestResult result) {
+        if (size == character.length) {
+            grow();
+        }
+
+        int quest = size;
+        int leader = characters.idOf(result.getCharacterName());
+        character[quest] = leader;
+        typeAndOutcome[quest] = (byte) (result.getQuestType().ordinal() | (result.isSuccess() ? SUCCESS : 0));
+        reward[quest] = result.getRewardAmount();
+        questsByType[result.getQuestType().ordinal()].add(quest);
+        postingsOf(leader).add(quest);
+
+        for (String companion : result.getCompanions()) {
+            int id = characters.idOf(companion);
+            companions.add(id);
+            postingsOf(id).add(quest);
+        }
+        companionOffsets[quest + 1] = companions.size();
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public QuestResult get(int quest) {
+        if (quest < 0 || quest >= size) {
+            throw new IndexOutOfBoundsException(quest);
+        }
+        return new QuestResult(characters.nameOf(character[quest]), typeOf(quest), isSuccess(quest), reward[quest],
+                new CompanionsView(companionOffsets[quest], companionOffsets[quest + 1]));
+    }
+
+    public QuestType typeOf(int quest) {
+        return QUEST_TYPES[typeAndOutcome[quest] & TYPE];
+    }
+
+    public boolean isSuccess(int quest) {
+        return (typeAndOutcome[quest] & SUCCESS) != 0;
+    }
+
+    public int rewardOf(int quest) {
+        return reward[quest];
+    }
+
+    // Quests led or joined by the character, in the order they were saved
+    public List<QuestResult> byCharacter(String name) {
+        int id = characters.find(name);
+        if (id == SymbolTable.UNKNOWN || id >= questsByCharacter.length || questsByCharacter[id] == null) {
+            return List.of();
+        }
+        return new PostingView(questsByCharacter[id]);
+    }
+
+    public List<QuestResult> byType(QuestType type) {
+        return new PostingView(questsByType[type.ordinal()]);
+    }
+
+    // A snapshot of the matching positions, taken by one pass over the outcome column
+    public List<QuestResult> byOutcome(boolean success) {
+        IntColumn matching = new IntColumn();
+        for (int quest = 0; quest < size; quest++) {
+            if (isSuccess(quest) == success) {
+                matching.add(quest);
+            }
+        }
+        return new PostingView(matching);
+    }
+
+    private IntColumn postingsOf(int characterId) {
+        if (characterId >= questsByCharacter.length) {
+            questsByCharacter = Arrays.copyOf(questsByCharacter, Math.max(characterId + 1, 2 * questsByCharacter.length));
+        }
+        if (questsByCharacter[characterId] == null) {
+            questsByCharacter[characterId] = new IntColumn();
+        }
+        return questsByCharacter[characterId];
+    }
+
+    private void grow() {
+        int capacity = IntColumn.grownCapacity(character.length);
+        character = Arrays.copyOf(character, capacity);
+        typeAndOutcome = Arrays.copyOf(typeAndOutcome, capacity);
+        reward = Arrays.copyOf(reward, capacity);
+        companionOffsets = Arrays.copyOf(companionOffsets, capacity + 1);
+    }
+
+    private class PostingView extends AbstractList<QuestResult> implements RandomAccess {
+        private final IntColumn quests;
+
+        PostingView(IntColumn quests) {
+            this.quests = quests;
+        }
+
+        @Override
+        public QuestResult get(int index) {
+            return QuestLog.this.get(quests.get(index));
+        }
+
+        @Override
+        public int size() {
+            return quests.size();
+        }
+    }
+
+    private class CompanionsView extends AbstractList<String> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        CompanionsView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return characters.nameOf(companions.get(from + index));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
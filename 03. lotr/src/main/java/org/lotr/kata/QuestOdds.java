@@ -0,0 +1,138 @@
+package org.lotr.kata;
+
+import java.util.List;
+
+// Chance of success of a quest, without rolling it. Every modifier that only depends on the level, the character
+// type, the quest, the weather or the war is read from a precomputed table (type bonuses from the QuestRules the odds
+// were built with), so that scoring a party is a handful of array reads and additions, with no allocation and no
+// lookup by name.
+//
+// Additions are made in the same order as the historical QuestService pipeline, which gives bit-for-bit the same
+// probabilities: table entries only merge steps that were consecutive, and missing modifiers are neutral (+0, x1).
+public class QuestOdds {
+    // Companion types that take part in the alliance bonuses, as bits of a party mask
+    public static final int ELF_COMPANION = 1;
+    public static final int DWARF_COMPANION = 2;
+    public static final int HOBBIT_COMPANION = 4;
+    public static final int WIZARD_COMPANION = 8;
+
+    // By CharacterLevel, OTHER last
+    private static final CharacterLevel[] LEVELS = CharacterLevel.values();
+    private static final double[] LEVEL_MODIFIERS = {-0.2, 0.1, 0.2, 0.3, 0};
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
+
+    // 0.5 + level modifier + quest difficulty, by level and quest
+    private static final double[][] START = new double[LEVELS.length][QUEST_TYPES.length];
+
+    static {
+        for (int level = 0; level < LEVELS.length; level++) {
+            for (QuestType quest : QUEST_TYPES) {
+                double chance = 0.5;
+                chance += LEVEL_MODIFIERS[level];
+                chance += switch (quest) {
+                    case DESTROY_RING -> -0.3;
+                    case DEFEAT_ORCS -> 0.1;
+                    case FIND_ARTIFACT -> -0.1;
+                    default -> 0;
+                };
+                START[level][quest.ordinal()] = chance;
+            }
+        }
+    }
+
+    private final QuestRules rules;
+    private final double weatherModifier;
+    private final double[] warModifiers = new double[QUEST_TYPES.length];
+
+    public QuestOdds(String weather, boolean warTime) {
+        this(weather, warTime, QuestRules.current());
+    }
+
+    public QuestOdds(String weather, boolean warTime, QuestRules rules) {
+        this.rules = rules;
+        this.weatherModifier = switch (weather) {
+            case "Stormy" -> -0.1;
+            case "Clear" -> 0.05;
+            default -> 0;
+        };
+        if (warTime) {
+            warModifiers[QuestType.DEFEAT_ORCS.ordinal()] = -0.1;
+            warModifiers[QuestType.DIPLOMATIC_MISSION.ordinal()] = -0.2;
+        }
+    }
+
+    public static int levelOf(String level) {
+        return CharacterLevel.orOther(level).ordinal();
+    }
+
+    public static int typeOf(String type) {
+        return CharacterType.of(type).ordinal();
+    }
+
+    public QuestRules getRules() {
+        return rules;
+    }
+
+    public static int companionTypes(CharacterServiceInterface characterService, List<String> companions) {
+        int mask = 0;
+        for (int i = 0; i < companions.size(); i++) {
+            mask |= companionType(characterService.getCharacterType(companions.get(i)));
+        }
+        return mask;
+    }
+
+    public static int companionTypes(CharacterServiceInterface characterService, int[] companionIds) {
+        int mask = 0;
+        for (int id : companionIds) {
+            mask |= companionType(characterService.getCharacterType(id));
+        }
+        return mask;
+    }
+
+    public static int companionType(String type) {
+        return companionType(CharacterType.of(type));
+    }
+
+    public static int companionType(CharacterType type) {
+        return switch (type) {
+            case ELF -> ELF_COMPANION;
+            case DWARF -> DWARF_COMPANION;
+            case HOBBIT -> HOBBIT_COMPANION;
+            case WIZARD -> WIZARD_COMPANION;
+            default -> 0;
+        };
+    }
+
+    // Powerful items help, cursed ones hurt. withItem(0, item) is what an item adds to the chance before the clamp.
+    public static double withItem(double chance, MiddleEarthItem item) {
+        if (item.isRing) chance += 0.15;
+        if (item.isMithril) chance += 0.1;
+        if (item.isGood) chance += 0.05;
+        if (item.isC) chance -= 0.15;
+        return chance;
+    }
+
+    // level and type come from levelOf and typeOf (or are CharacterLevel and CharacterType ordinals), companionTypes is a mask of *_COMPANION bits
+    public double successChance(int level, int type, QuestType questType, int companionCount, int companionTypes, List<MiddleEarthItem> items) {
+        int quest = questType.ordinal();
+        double chance = START[level][quest];
+        chance += companionCount * 0.05;
+
+        for (int i = 0; i < items.size(); i++) {
+            chance = withItem(chance, items.get(i));
+        }
+        chance = Math.clamp(chance, 0.1, 0.95);
+
+        chance *= rules.typeBonus(type, quest);
+        if ((companionTypes & (ELF_COMPANION | DWARF_COMPANION)) == (ELF_COMPANION | DWARF_COMPANION)) {
+            chance += 0.05;
+        }
+        if ((companionTypes & (HOBBIT_COMPANION | WIZARD_COMPANION)) == (HOBBIT_COMPANION | WIZARD_COMPANION)) {
+            chance += 0.1;
+        }
+        chance += weatherModifier;
+        chance += warModifiers[quest];
+
+        return Math.clamp(chance, 0.1, 0.95);
+    }
+}
@@ -0,0 +1,8 @@
+package org.lotr.kata;
+
+// A party found by PartySearch, with its odds: the scenario can be started as is or simulated
+public record QuestParty(QuestScenario scenario, double successChance, int reward) {
+    public double expectedReward() {
+        return successChance * reward;
+    }
+}
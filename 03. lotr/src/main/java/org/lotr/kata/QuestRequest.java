@@ -0,0 +1,11 @@
+package org.lotr.kata;
+
+import java.util.List;
+
+// One quest of a batch, with items named as in MiddleEarthManager.attemptQuestWithCharacter
+public record QuestRequest(String characterName, QuestType questType, List<String> companions, List<String> itemNames) {
+    public QuestRequest {
+        companions = List.copyOf(companions);
+        itemNames = List.copyOf(itemNames);
+    }
+}
@@ -0,0 +1,234 @@
+package org.lotr.kata;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.lotr.kata.Characters.CHARACTER_BONUSES;
+import static org.lotr.kata.Characters.QUEST_BASE_REWARDS;
+
+// Character type bonuses and base rewards of the quests, as dense tables indexed by CharacterType and QuestType
+// ordinals. Rules are immutable: a reload publishes a whole new table, so a quest that read the current rules keeps
+// scoring with them even if they are replaced in the meantime.
+//
+// Rules files are properties files. Entries missing from a file keep their built-in value:
+//   bonus.Dwarf.DEFEAT_ORCS=1.4
+//   reward.DESTROY_RING=150
+//
+// watch(file) reloads a file whenever a new version is moved over it. Rules must be replaced that way, written next to
+// the file then moved in one step: a file edited in place could be read half written, and the rules it is missing would
+// quietly fall back to their built-in values. Without a watcher, the rules only change when reload or
+// reloadIfModified is called.
+public final class QuestRules {
+    private static final CharacterType[] TYPES = CharacterType.values();
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
+    private static final int DEFAULT_BASE_REWARD = 100;
+
+    public static final QuestRules DEFAULT = defaults();
+    private static volatile Loaded current = new Loaded(DEFAULT, null, null);
+
+    private final double[][] typeBonuses;
+    private final int[] baseRewards;
+
+    private QuestRules(double[][] typeBonuses, int[] baseRewards) {
+        this.typeBonuses = typeBonuses;
+        this.baseRewards = baseRewards;
+    }
+
+    public static QuestRules current() {
+        return current.rules;
+    }
+
+    public static void use(QuestRules rules) {
+        current = new Loaded(rules, null, null);
+    }
+
+    // Loads and publishes the rules of a file. A file that cannot be read or parsed leaves the current rules in place.
+    public static QuestRules reload(Path file) {
+        FileTime modified = lastModified(file);
+        QuestRules rules = load(file);
+        current = new Loaded(rules, file, modified);
+        return rules;
+    }
+
+    // Reloads the file unless the current rules were loaded from it and it did not change since
+    public static boolean reloadIfModified(Path file) {
+        Loaded loaded = current;
+        if (file.equals(loaded.file) && lastModified(file).equals(loaded.modified)) {
+            return false;
+        }
+        reload(file);
+        return true;
+    }
+
+    // Loads the file now, then reloads it each time a new version is moved over it, until the watcher is closed.
+    // Writes in place are ignored. A version that cannot be read or parsed is reported on stderr and leaves the current
+    // rules in place.
+    public static Watcher watch(Path file) {
+        reload(file);
+        try {
+            WatchService service = file.getFileSystem().newWatchService();
+            file.toAbsolutePath().getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE);
+            return new Watcher(file, service);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch quest rules in " + file, e);
+        }
+    }
+
+    public static QuestRules load(Path file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read quest rules from " + file, e);
+        }
+
+        double[][] typeBonuses = new double[TYPES.length][];
+        for (int type = 0; type < TYPES.length; type++) {
+            typeBonuses[type] = DEFAULT.typeBonuses[type].clone();
+        }
+        int[] baseRewards = DEFAULT.baseRewards.clone();
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            String[] parts = key.split("\\.");
+            if (parts.length == 3 && parts[0].equals("bonus")) {
+                CharacterType type = CharacterType.of(parts[1]);
+                if (type == CharacterType.OTHER) {
+                    throw new IllegalArgumentException("Unknown character type in quest rule " + key);
+                }
+                typeBonuses[type.ordinal()][questType(key, parts[2]).ordinal()] = bonus(key, value);
+            } else if (parts.length == 2 && parts[0].equals("reward")) {
+                baseRewards[questType(key, parts[1]).ordinal()] = reward(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown quest rule " + key);
+            }
+        }
+        return new QuestRules(typeBonuses, baseRewards);
+    }
+
+    public double typeBonus(CharacterType type, QuestType questType) {
+        return typeBonuses[type.ordinal()][questType.ordinal()];
+    }
+
+    double typeBonus(int type, int quest) {
+        return typeBonuses[type][quest];
+    }
+
+    public int baseReward(QuestType questType) {
+        return baseRewards[questType.ordinal()];
+    }
+
+    private static QuestRules defaults() {
+        double[][] typeBonuses = new double[TYPES.length][QUEST_TYPES.length];
+        int[] baseRewards = new int[QUEST_TYPES.length];
+        for (CharacterType type : TYPES) {
+            Map<QuestType, Double> bonuses = type == CharacterType.OTHER ? Map.of() : CHARACTER_BONUSES.getOrDefault(type.getLabel(), Map.of());
+            for (QuestType quest : QUEST_TYPES) {
+                typeBonuses[type.ordinal()][quest.ordinal()] = bonuses.getOrDefault(quest, 1.0);
+            }
+        }
+        for (QuestType quest : QUEST_TYPES) {
+            baseRewards[quest.ordinal()] = QUEST_BASE_REWARDS.getOrDefault(quest, DEFAULT_BASE_REWARD);
+        }
+        return new QuestRules(typeBonuses, baseRewards);
+    }
+
+    private static QuestType questType(String key, String name) {
+        try {
+            return QuestType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown quest type in quest rule " + key);
+        }
+    }
+
+    private static double bonus(String key, String value) {
+        try {
+            double bonus = Double.parseDouble(value);
+            if (bonus >= 0 && Double.isFinite(bonus)) return bonus;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid bonus for quest rule " + key + ": " + value);
+    }
+
+    private static int reward(String key, String value) {
+        try {
+            int reward = Integer.parseInt(value);
+            if (reward >= 0) return reward;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid reward for quest rule " + key + ": " + value);
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read quest rules from " + file, e);
+        }
+    }
+
+    private record Loaded(QuestRules rules, Path file, FileTime modified) {
+    }
+
+    public static final class Watcher implements AutoCloseable {
+        private final Path file;
+        private final WatchService service;
+        private final Thread thread;
+
+        private Watcher(Path file, WatchService service) {
+            this.file = file;
+            this.service = service;
+            this.thread = Thread.ofVirtual().name("quest-rules-watcher").start(this::run);
+        }
+
+        @Override
+        public void close() {
+            try {
+                service.close();
+                thread.join();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot stop watching quest rules in " + file, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while stopping the quest rules watcher", e);
+            }
+        }
+
+        private void run() {
+            try {
+                for (WatchKey key = service.take(); ; key = service.take()) {
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // A new version of the file was moved in, or lost events could have been about it
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+                    }
+                    if (changed) {
+                        reloadChanges();
+                    }
+                    if (!key.reset()) return;
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Closed
+            }
+        }
+
+        private void reloadChanges() {
+            try {
+                reload(file);
+            } catch (RuntimeException e) {
+                System.err.println("Quest rules not reloaded from " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
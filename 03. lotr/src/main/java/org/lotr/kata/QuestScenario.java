@@ -0,0 +1,11 @@
+package org.lotr.kata;
+
+import java.util.List;
+
+// One party setup to simulate: who leads, which quest, with whom and carrying what
+public record QuestScenario(String characterName, QuestType questType, List<String> companions, List<MiddleEarthItem> items) {
+    public QuestScenario {
+        companions = List.copyOf(companions);
+        items = List.copyOf(items);
+    }
+}
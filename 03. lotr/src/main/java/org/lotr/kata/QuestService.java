@@ -1,159 +1,147 @@
 package org.lotr.kata;
 
 import java.util.List;
-
-import static org.lotr.kata.Characters.*;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 public class QuestService {
     private final InventoryManagerInterface inventoryManager;
     private final QuestDatabaseInterface questDatabase;
     private final CharacterServiceInterface characterService;
+    private final RandomGenerator random;
+    // Replaced as a whole, so that threads sharing the service never pair odds with another weather or war
+    private volatile CachedOdds cachedOdds;
 
     public QuestService(InventoryManagerInterface inventoryManager,
                         QuestDatabaseInterface questDatabase,
                         CharacterServiceInterface characterService) {
+        this(inventoryManager, questDatabase, characterService, new Random());
+    }
+
+    // The generator decides quest outcomes and consumed items: a seeded one makes quests reproducible
+    public QuestService(InventoryManagerInterface inventoryManager,
+                        QuestDatabaseInterface questDatabase,
+                        CharacterServiceInterface characterService,
+                        RandomGenerator random) {
         this.inventoryManager = inventoryManager;
         this.questDatabase = questDatabase;
         this.characterService = characterService;
+        this.random = random;
     }
 
     public QuestResult startQuest(String characterName, QuestType questType, List<String> companionNames, List<MiddleEarthItem> items) {
         var companions = Companions.from(characterService, characterName, companionNames);
         var middleEarthItems = MiddleEarthItems.from(inventoryManager, items);
-        var characterType = characterService.getCharacterType(characterName);
-
-        veryQuest(characterName, questType, middleEarthItems);
 
-        var success = defineSuccess(characterName, questType, companions, middleEarthItems);
-        var rewardAmount = calculateRewardAmount(questType, success, characterType, companions, middleEarthItems);
-
-        characterService.completeQuest(characterName, success);
-        companions.completeQuest(success);
-        middleEarthItems.removeConsumedItems(inventoryManager, questType);
-
-        var result = new QuestResult(characterName, questType, success, rewardAmount, companions);
-        questDatabase.saveQuestResult(result);
-
-        return result;
+        return runQuest(characterService.idOf(characterName), questType, companions, middleEarthItems,
+                item -> inventoryManager.removeItem(item.n, item.q), questDatabase::saveQuestResult);
     }
 
-    private int calculateRewardAmount(QuestType questType, boolean success, String characterType, Companions companions, MiddleEarthItems items) {
-        return success
-                ? calculateReward(questType, characterType, companions, items)
-                : 0;
+    // Same quest with characters given by id (see CharacterServiceInterface.idOf): no name is hashed or compared
+    public QuestResult startQuest(int characterId, QuestType questType, int[] companionIds, List<MiddleEarthItem> items) {
+        var companions = Companions.from(characterService, characterId, companionIds);
+        var middleEarthItems = MiddleEarthItems.from(inventoryManager, items);
+
+        return runQuest(characterId, questType, companions, middleEarthItems,
+                item -> inventoryManager.removeItem(item.n, item.q), questDatabase::saveQuestResult);
     }
 
-    private boolean defineSuccess(String characterName, QuestType questType, Companions companions, MiddleEarthItems items) {
-        var baseSuccessChance = calculateBaseSuccessChance(characterName, questType, companions, items);
-        var finalSuccessChance = applyModifiers(baseSuccessChance, characterName, questType, companions);
+    // For batches: items are already known to be in stock, consumed items and the result are handed over to be
+    // written later
+    QuestResult startQuest(String characterName, QuestType questType, List<String> companionNames, List<MiddleEarthItem> items,
+                           Consumer<MiddleEarthItem> consume, Consumer<QuestResult> save) {
+        var companions = Companions.from(characterService, characterName, companionNames);
 
-        return Math.random() < finalSuccessChance;
+        return runQuest(characterService.idOf(characterName), questType, companions, new MiddleEarthItems(items), consume, save);
     }
 
-    private void veryQuest(String characterName, QuestType questType, MiddleEarthItems items) {
-        if (questType == QuestType.DESTROY_RING && !items.containsRing()) {
-            throw new IllegalStateException("Cannot start DESTROY_RING quest without a ring!");
-        }
+    private QuestResult runQuest(int characterId, QuestType questType, Companions companions, MiddleEarthItems middleEarthItems,
+                                 Consumer<MiddleEarthItem> consume, Consumer<QuestResult> save) {
+        var characterType = characterService.getCharacterType(characterId);
+        var characterLevel = characterService.getCharacterLevel(characterId);
 
-        if (questType == QuestType.DIPLOMATIC_MISSION
-                && characterService.getCharacterType(characterName).equals(HOBBIT)
-                && !characterService.getCharacterLevel(characterName).equals("Experienced")) {
-            throw new IllegalStateException("Inexperienced Hobbits cannot lead diplomatic missions.");
-        }
-    }
+        veryQuest(characterType, characterLevel, questType, middleEarthItems);
 
-    private double calculateBaseSuccessChance(String characterName, QuestType questType, Companions companions, List<MiddleEarthItem> items) {
-        double baseChance = 0.5; // 50% base chance
-
-        // Adjust based on character level
-        String level = characterService.getCharacterLevel(characterName);
-        baseChance += switch (level) {
-            case "Novice" -> -0.2;
-            case "Experienced" -> 0.1;
-            case "Veteran" -> 0.2;
-            case "Legendary" -> 0.3;
-            default -> 0;
-        };
-
-        // Adjust based on quest type
-        if (questType == QuestType.DESTROY_RING) {
-            baseChance -= 0.3; // Very difficult
-        } else if (questType == QuestType.DEFEAT_ORCS) {
-            baseChance += 0.1; // Relatively easy
-        } else if (questType == QuestType.FIND_ARTIFACT) {
-            baseChance -= 0.1; // Somewhat difficult
-        }
+        var questOdds = currentOdds();
+        var success = random.nextDouble() < questOdds.successChance(characterLevel.ordinal(), characterType.ordinal(), questType,
+                companions.size(), companions.getCompanionTypes(), middleEarthItems);
+        var rewardAmount = success ? calculateReward(questOdds.getRules(), questType, characterType, companions.size(), middleEarthItems) : 0;
 
-        baseChance += companions.getBaseChance();
+        characterService.completeQuest(characterId, success);
+        companions.completeQuest(success);
+        middleEarthItems.removeConsumedItems(questType, random, consume);
 
-        // Powerful items help
-        for (MiddleEarthItem item : items) {
-            if (item.isRing) baseChance += 0.15;
-            if (item.isMithril) baseChance += 0.1;
-            if (item.isGood) baseChance += 0.05;
-            if (item.isC) baseChance -= 0.15; // Cursed items hurt chances
-        }
+        var result = new QuestResult(characterService.nameOf(characterId), questType, success, rewardAmount, companions);
+        save.accept(result);
 
-        return Math.clamp(baseChance, 0.1, 0.95); // Clamp between 10% and 95%
+        return result;
     }
 
-    private double applyModifiers(double baseChance, String characterName, QuestType questType, Companions companions) {
-        String characterType = characterService.getCharacterType(characterName);
+    // Chance of success of a quest, without starting it: nothing is checked, rolled or recorded
+    public double getSuccessChance(String characterName, QuestType questType, List<String> companionNames, List<MiddleEarthItem> items) {
+        return currentOdds()
+                .successChance(QuestOdds.levelOf(characterService.getCharacterLevel(characterName)),
+                        QuestOdds.typeOf(characterService.getCharacterType(characterName)),
+                        questType,
+                        companionNames.size(),
+                        QuestOdds.companionTypes(characterService, companionNames),
+                        items);
+    }
 
-        // Apply character type modifier
-        if (CHARACTER_BONUSES.containsKey(characterType) && CHARACTER_BONUSES.get(characterType).containsKey(questType)) {
-            double typeBonus = CHARACTER_BONUSES.get(characterType).get(questType);
-            baseChance *= typeBonus;
+    // Rebuilt only when the weather, the war or the quest rules change
+    private QuestOdds currentOdds() {
+        String weather = questDatabase.getCurrentWeather();
+        boolean warTime = inventoryManager.isWarTime();
+        QuestRules rules = QuestRules.current();
+        CachedOdds cached = cachedOdds;
+        if (cached == null || !cached.isFor(weather, warTime, rules)) {
+            cached = new CachedOdds(new QuestOdds(weather, warTime, rules), weather, warTime);
+            cachedOdds = cached;
         }
+        return cached.odds();
+    }
 
-        if (companions.containsElfAndDwarf()) {
-            baseChance += 0.05; // Unlikely alliance bonus
-        }
-        if (companions.containsHobbitAndWizard()) {
-            baseChance += 0.1; // Fellowship bonus
+    private record CachedOdds(QuestOdds odds, String weather, boolean warTime) {
+        boolean isFor(String weather, boolean warTime, QuestRules rules) {
+            return this.weather.equals(weather) && this.warTime == warTime && odds.getRules() == rules;
         }
+    }
 
-        // Weather effects (just to add complexity)
-        if (questDatabase.getCurrentWeather().equals("Stormy")) {
-            baseChance -= 0.1;
-        } else if (questDatabase.getCurrentWeather().equals("Clear")) {
-            baseChance += 0.05;
+    private void veryQuest(CharacterType characterType, CharacterLevel characterLevel, QuestType questType, MiddleEarthItems items) {
+        if (questType == QuestType.DESTROY_RING && !items.containsRing()) {
+            throw new IllegalStateException("Cannot start DESTROY_RING quest without a ring!");
         }
+        verifyLeader(characterType, characterLevel, questType);
+    }
 
-        // War time effects
-        if (inventoryManager.isWarTime()) {
-            if (questType == QuestType.DEFEAT_ORCS) {
-                baseChance -= 0.1; // More orcs during war
-            } else if (questType == QuestType.DIPLOMATIC_MISSION) {
-                baseChance -= 0.2; // Diplomacy harder during war
-            }
+    void verifyLeader(String characterName, QuestType questType) {
+        int characterId = characterService.idOf(characterName);
+        verifyLeader(characterService.getCharacterType(characterId), characterService.getCharacterLevel(characterId), questType);
+    }
+
+    private static void verifyLeader(CharacterType characterType, CharacterLevel characterLevel, QuestType questType) {
+        if (questType == QuestType.DIPLOMATIC_MISSION
+                && characterType == CharacterType.HOBBIT
+                && characterLevel != CharacterLevel.EXPERIENCED) {
+            throw new IllegalStateException("Inexperienced Hobbits cannot lead diplomatic missions.");
         }
+    }
 
-        return Math.clamp(baseChance, 0.1, 0.95); // Clamp between 10% and 95%
+    static int calculateReward(QuestType questType, String characterType, int companionCount, List<MiddleEarthItem> items) {
+        return calculateReward(QuestRules.current(), questType, CharacterType.of(characterType), companionCount, items);
     }
 
-    private int calculateReward(QuestType questType, String characterType, Companions companions, List<MiddleEarthItem> items) {
-        var baseReward = QUEST_BASE_REWARDS.getOrDefault(questType, 100);
-        var typeBonus = getTypeBonus(questType, characterType);
-        var finalReward = computeReward(companions, items, baseReward, typeBonus);
+    static int calculateReward(QuestRules rules, QuestType questType, CharacterType characterType, int companionCount, List<MiddleEarthItem> items) {
+        double finalReward = rules.baseReward(questType) * rules.typeBonus(characterType, questType) / (companionCount + 1);
+        for (int i = 0; i < items.size(); i++) {
+            finalReward *= items.get(i).getRate();
+        }
 
         return roundToNearest10(finalReward);
     }
 
-    private static double computeReward(Companions companions, List<MiddleEarthItem> items, int baseReward, double typeBonus) {
-        double finalReward = baseReward * typeBonus / (companions.size() + 1);
-        return items.stream()
-                .mapToDouble(MiddleEarthItem::getRate)
-                .reduce(finalReward, (reward, rate) -> reward * rate);
-    }
-
     private static int roundToNearest10(double finalReward) {
         return (int) (Math.round(finalReward / 10) * 10);
     }
-
-    private static double getTypeBonus(QuestType questType, String characterType) {
-        return CHARACTER_BONUSES.containsKey(characterType) && CHARACTER_BONUSES.get(characterType).containsKey(questType)
-                ? CHARACTER_BONUSES.get(characterType).get(questType)
-                : 1.0;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package org.lotr.kata;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Outcome of many simulated attempts of one QuestScenario
+public class QuestSimulation {
+    private final long trials;
+    private final long successes;
+    private final long totalReward;
+    private final SortedMap<Integer, Long> rewardDistribution;
+
+    QuestSimulation(long trials, long successes, long totalReward, SortedMap<Integer, Long> rewardDistribution) {
+        this.trials = trials;
+        this.successes = successes;
+        this.totalReward = totalReward;
+        this.rewardDistribution = Collections.unmodifiableSortedMap(new TreeMap<>(rewardDistribution));
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public double getSuccessRate() {
+        return trials == 0 ? 0 : (double) successes / trials;
+    }
+
+    public double getAverageReward() {
+        return trials == 0 ? 0 : (double) totalReward / trials;
+    }
+
+    // Number of trials that ended with each reward, failures included with a reward of 0
+    public SortedMap<Integer, Long> getRewardDistribution() {
+        return rewardDistribution;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d trials, %.2f%% success, %.1f gold on average, rewards %s",
+                trials, 100 * getSuccessRate(), getAverageReward(), rewardDistribution);
+    }
+}
@@ -0,0 +1,284 @@
+package org.lotr.kata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// "What if" runs of QuestService.startQuest. Every trial starts from the state of Middle Earth at the time of the
+// call: characters, inventory and quest database are read once, and nothing a trial does is written back to them.
+//
+// Trials are cut in fixed-size batches, each with its own generator split from the root one before anything runs.
+// With a seed, results are therefore the same whatever the number of threads.
+public class QuestSimulator {
+    public static final int TRIALS_PER_BATCH = 10_000;
+    private static final String ALGORITHM = "L64X128MixRandom";
+
+    private final InventoryManagerInterface inventoryManager;
+    private final QuestDatabaseInterface questDatabase;
+    private final CharacterServiceInterface characterService;
+    private final ForkJoinPool pool;
+
+    public QuestSimulator(InventoryManagerInterface inventoryManager,
+                          QuestDatabaseInterface questDatabase,
+                          CharacterServiceInterface characterService) {
+        this(inventoryManager, questDatabase, characterService, ForkJoinPool.commonPool());
+    }
+
+    public QuestSimulator(InventoryManagerInterface inventoryManager,
+                          QuestDatabaseInterface questDatabase,
+                          CharacterServiceInterface characterService,
+                          ForkJoinPool pool) {
+        this.inventoryManager = inventoryManager;
+        this.questDatabase = questDatabase;
+        this.characterService = characterService;
+        this.pool = pool;
+    }
+
+    public Map<QuestScenario, QuestSimulation> simulate(List<QuestScenario> scenarios, int trials) {
+        return simulate(scenarios, trials, RandomGeneratorFactory.<SplittableGenerator>of(ALGORITHM).create());
+    }
+
+    public Map<QuestScenario, QuestSimulation> simulate(List<QuestScenario> scenarios, int trials, long seed) {
+        return simulate(scenarios, trials, RandomGeneratorFactory.<SplittableGenerator>of(ALGORITHM).create(seed));
+    }
+
+    private Map<QuestScenario, QuestSimulation> simulate(List<QuestScenario> scenarios, int trials, SplittableGenerator root) {
+        if (trials < 1) {
+            throw new IllegalArgumentException("At least one trial is needed: " + trials);
+        }
+        // Results are keyed by scenario, so a repeated one would silently get the trials of both
+        Set<QuestScenario> distinct = new HashSet<>();
+        for (QuestScenario scenario : scenarios) {
+            if (!distinct.add(scenario)) {
+                throw new IllegalArgumentException("Scenario listed twice: " + scenario);
+            }
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        for (QuestScenario scenario : scenarios) {
+            Sandbox sandbox = sandboxFor(scenario);
+            for (int start = 0; start < trials; start += TRIALS_PER_BATCH) {
+                batches.add(new Batch(scenario, sandbox, Math.min(TRIALS_PER_BATCH, trials - start), root.split()));
+            }
+        }
+
+        Map<QuestScenario, Tally> tallies = new LinkedHashMap<>();
+        for (Future<Tally> batch : pool.invokeAll(batches)) {
+            Tally tally = join(batch);
+            tallies.merge(tally.scenario, tally, Tally::add);
+        }
+
+        Map<QuestScenario, QuestSimulation> simulations = new LinkedHashMap<>();
+        tallies.forEach((scenario, tally) -> simulations.put(scenario, tally.toSimulation()));
+        return simulations;
+    }
+
+    // Everything a trial reads, copied once on the calling thread
+    private Sandbox sandboxFor(QuestScenario scenario) {
+        Map<String, Profile> characters = new HashMap<>();
+        List<String> party = new ArrayList<>(scenario.companions());
+        party.add(scenario.characterName());
+        for (String name : party) {
+            if (characterService.isCharacterAvailable(name)) {
+                characters.put(name, new Profile(characterService.getCharacterType(name), characterService.getCharacterLevel(name)));
+            }
+        }
+        return new Sandbox(Map.copyOf(characters), inventoryManager.isWarTime(), questDatabase.getCurrentWeather());
+    }
+
+    private static Tally join(Future<Tally> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Quest simulation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Profile(String type, String level) {
+    }
+
+    private record Sandbox(Map<String, Profile> characters, boolean warTime, String weather) {
+    }
+
+    private record Batch(QuestScenario scenario, Sandbox sandbox, int trials, RandomGenerator random) implements Callable<Tally> {
+        @Override
+        public Tally call() {
+            Tally tally = new Tally(scenario);
+            SimulatedInventory inventory = new SimulatedInventory(scenario.items(), sandbox.warTime);
+            QuestService questService = new QuestService(inventory, new SimulatedQuestDatabase(sandbox.weather, tally),
+                    new SimulatedCharacters(sandbox.characters), random);
+            for (int trial = 0; trial < trials; trial++) {
+                questService.startQuest(scenario.characterName(), scenario.questType(), scenario.companions(), scenario.items());
+            }
+            return tally;
+        }
+    }
+
+    // Successes and rewards of a batch. Rewards only take a handful of values, kept in small parallel arrays.
+    private static class Tally {
+        private final QuestScenario scenario;
+        private long trials;
+        private long successes;
+        private long totalReward;
+        private int[] rewards = new int[4];
+        private long[] counts = new long[4];
+        private int distinctRewards;
+
+        Tally(QuestScenario scenario) {
+            this.scenario = scenario;
+        }
+
+        void record(boolean success, int reward) {
+            trials++;
+            if (success) successes++;
+            totalReward += reward;
+            count(reward, 1);
+        }
+
+        Tally add(Tally other) {
+            trials += other.trials;
+            successes += other.successes;
+            totalReward += other.totalReward;
+            for (int i = 0; i < other.distinctRewards; i++) {
+                count(other.rewards[i], other.counts[i]);
+            }
+            return this;
+        }
+
+        private void count(int reward, long count) {
+            for (int i = 0; i < distinctRewards; i++) {
+                if (rewards[i] == reward) {
+                    counts[i] += count;
+                    return;
+                }
+            }
+            if (distinctRewards == rewards.length) {
+                rewards = Arrays.copyOf(rewards, 2 * distinctRewards);
+                counts = Arrays.copyOf(counts, 2 * distinctRewards);
+            }
+            rewards[distinctRewards] = reward;
+            counts[distinctRewards++] = count;
+        }
+
+        QuestSimulation toSimulation() {
+            TreeMap<Integer, Long> distribution = new TreeMap<>();
+            for (int i = 0; i < distinctRewards; i++) {
+                distribution.put(rewards[i], counts[i]);
+            }
+            return new QuestSimulation(trials, successes, totalReward, distribution);
+        }
+    }
+
+    // Items are never consumed: each trial starts with the whole scenario inventory
+    private static class SimulatedInventory implements InventoryManagerInterface {
+        private final List<MiddleEarthItem> items;
+        private final boolean warTime;
+
+        SimulatedInventory(List<MiddleEarthItem> items, boolean warTime) {
+            this.items = items;
+            this.warTime = warTime;
+        }
+
+        public List<MiddleEarthItem> getAllItems() {
+            return items;
+        }
+
+        public boolean isWarTime() {
+            return warTime;
+        }
+
+        public void removeItem(String name, int quantity) {
+        }
+
+        public void addItem(MiddleEarthItem item) {
+        }
+
+        public void updateAllItems() {
+        }
+
+        public void setWarTime(boolean warTime) {
+        }
+
+        public boolean hasRing() {
+            return items.stream().anyMatch(item -> item.isRing);
+        }
+
+        public String getInventoryReport(boolean includeRings, boolean includeQualityDetails, String sortBy) {
+            return "";
+        }
+    }
+
+    private static class SimulatedQuestDatabase implements QuestDatabaseInterface {
+        private final String weather;
+        private final Tally tally;
+
+        SimulatedQuestDatabase(String weather, Tally tally) {
+            this.weather = weather;
+            this.tally = tally;
+        }
+
+        public String getCurrentWeather() {
+            return weather;
+        }
+
+        public void saveQuestResult(QuestResult result) {
+            tally.record(result.isSuccess(), result.getRewardAmount());
+        }
+
+        public void setCurrentWeather(String weather) {
+        }
+
+        public String generateQuestReport() {
+            return "";
+        }
+    }
+
+    // Types and levels as they were when the simulation started: no trial promotes anyone
+    private static class SimulatedCharacters implements CharacterServiceInterface {
+        private final Map<String, Profile> characters;
+
+        SimulatedCharacters(Map<String, Profile> characters) {
+            this.characters = characters;
+        }
+
+        public boolean isCharacterAvailable(String name) {
+            return characters.containsKey(name);
+        }
+
+        public String getCharacterType(String name) {
+            return profile(name).type();
+        }
+
+        public String getCharacterLevel(String name) {
+            return profile(name).level();
+        }
+
+        public void completeQuest(String name, boolean success) {
+        }
+
+        private Profile profile(String name) {
+            Profile profile = characters.get(name);
+            if (profile == null) {
+                throw new IllegalArgumentException("Character not found: " + name);
+            }
+            return profile;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.lotr.kata;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+// Immutable list of items, kept as a persistent tree: segments of up to 64 items at the leaves, up to 32 children per
+// branch. Every change returns a new list that copies the path to the touched segment and shares everything else with
+// the previous one, so adding or removing an item costs a few small array copies whatever the size of the inventory,
+// handing the current list to a reader costs nothing, and the reader keeps a consistent view whatever happens to the
+// inventory afterwards. Only membership is frozen: the items themselves are the live, mutable ones.
+//
+// Removals merge a segment, or a branch, that became small with a neighbour when they fit together, so sales do not
+// leave the tree full of nearly empty segments. The tree only gets taller on appends.
+final class SegmentedItemList extends AbstractList<MiddleEarthItem> implements RandomAccess {
+    static final int SEGMENT_SIZE = 64;
+    static final int BRANCHING = 32;
+    static final SegmentedItemList EMPTY = new SegmentedItemList(Branch.of(new Node[0]), 1);
+
+    // Leaves are height levels below the root, which is always a branch
+    private final Branch root;
+    private final int height;
+
+    private SegmentedItemList(Branch root, int height) {
+        this.root = root;
+        this.height = height;
+    }
+
+    @Override
+    public int size() {
+        return root.size();
+    }
+
+    @Override
+    public MiddleEarthItem get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int child = branch.childOf(index);
+            index -= branch.start(child);
+            node = branch.children[child];
+        }
+        return ((Leaf) node).items[index];
+    }
+
+    @Override
+    public Iterator<MiddleEarthItem> iterator() {
+        return new Iterator<>() {
+            // Branches from the root down to the current segment, and the next child to visit in each of them
+            private final Branch[] path = new Branch[height];
+            private final int[] next = new int[height];
+            private MiddleEarthItem[] segment = new MiddleEarthItem[0];
+            private int offset;
+
+            {
+                path[0] = root;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return offset < segment.length || nextSegment();
+            }
+
+            @Override
+            public MiddleEarthItem next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return segment[offset++];
+            }
+
+            private boolean nextSegment() {
+                int level = height - 1;
+                while (level >= 0 && (path[level] == null || next[level] == path[level].children.length)) {
+                    level--;
+                }
+                if (level < 0) return false;
+
+                Node node = path[level].children[next[level]++];
+                while (++level < height) {
+                    path[level] = (Branch) node;
+                    next[level] = 1;
+                    node = path[level].children[0];
+                }
+                segment = ((Leaf) node).items;
+                offset = 0;
+                return true;
+            }
+        };
+    }
+
+    // Copies the last segment and its branches, or starts a new segment when it is full
+    SegmentedItemList with(MiddleEarthItem item) {
+        Node appended = append(root, height, item);
+        if (appended != null) {
+            return new SegmentedItemList((Branch) appended, height);
+        }
+        return new SegmentedItemList(Branch.of(new Node[]{root, single(height, item)}), height + 1);
+    }
+
+    // Copies the segment of the item and its branches
+    SegmentedItemList without(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        Node node = remove(root, index);
+        if (node == null) return EMPTY;
+
+        int newHeight = height;
+        while (newHeight > 1 && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+            newHeight--;
+        }
+        return new SegmentedItemList((Branch) node, newHeight);
+    }
+
+    // Rebuilds the whole list, for bulk removals such as the daily tick
+    SegmentedItemList without(Collection<MiddleEarthItem> removed) {
+        if (removed.isEmpty()) return this;
+
+        Set<MiddleEarthItem> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+        dropped.addAll(removed);
+        Builder builder = new Builder();
+        for (MiddleEarthItem item : this) {
+            if (!dropped.contains(item)) builder.add(item);
+        }
+        return builder.build();
+    }
+
+    int segmentCount() {
+        return segmentsIn(root);
+    }
+
+    private static int segmentsIn(Node node) {
+        if (node instanceof Leaf) return 1;
+        int count = 0;
+        for (Node child : ((Branch) node).children) {
+            count += segmentsIn(child);
+        }
+        return count;
+    }
+
+    // Copy of node with the item at its end, or null when node is full
+    private static Node append(Node node, int level, MiddleEarthItem item) {
+        if (node instanceof Leaf leaf) {
+            if (leaf.items.length == SEGMENT_SIZE) return null;
+            MiddleEarthItem[] items = Arrays.copyOf(leaf.items, leaf.items.length + 1);
+            items[leaf.items.length] = item;
+            return new Leaf(items);
+        }
+
+        Branch branch = (Branch) node;
+        int last = branch.children.length - 1;
+        if (last >= 0) {
+            Node child = append(branch.children[last], level - 1, item);
+            if (child != null) {
+                Node[] children = branch.children.clone();
+                children[last] = child;
+                return Branch.of(children);
+            }
+        }
+        if (branch.children.length == BRANCHING) return null;
+        Node[] children = Arrays.copyOf(branch.children, branch.children.length + 1);
+        children[last + 1] = single(level - 1, item);
+        return Branch.of(children);
+    }
+
+    private static Node single(int level, MiddleEarthItem item) {
+        return level == 0 ? new Leaf(new MiddleEarthItem[]{item}) : Branch.of(new Node[]{single(level - 1, item)});
+    }
+
+    // Copy of node without the item at index, or null when it was its last item
+    private static Node remove(Node node, int index) {
+        if (node instanceof Leaf leaf) {
+            if (leaf.items.length == 1) return null;
+            MiddleEarthItem[] items = new MiddleEarthItem[leaf.items.length - 1];
+            System.arraycopy(leaf.items, 0, items, 0, index);
+            System.arraycopy(leaf.items, index + 1, items, index, items.length - index);
+            return new Leaf(items);
+        }
+
+        Branch branch = (Branch) node;
+        int at = branch.childOf(index);
+        Node child = remove(branch.children[at], index - branch.start(at));
+        List<Node> children = new ArrayList<>(Arrays.asList(branch.children));
+        if (child == null) {
+            children.remove(at);
+            return children.isEmpty() ? null : Branch.of(children.toArray(new Node[0]));
+        }
+
+        children.set(at, child);
+        if (child.isSmall()) {
+            if (at > 0 && fit(children.get(at - 1), child)) {
+                children.set(at - 1, merge(children.get(at - 1), child));
+                children.remove(at);
+            } else if (at + 1 < children.size() && fit(child, children.get(at + 1))) {
+                children.set(at, merge(child, children.get(at + 1)));
+                children.remove(at + 1);
+            }
+        }
+        return Branch.of(children.toArray(new Node[0]));
+    }
+
+    // Siblings are always on the same level, so both are leaves or both are branches
+    private static boolean fit(Node left, Node right) {
+        int capacity = left instanceof Leaf ? SEGMENT_SIZE : BRANCHING;
+        return left.width() + right.width() <= capacity;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left instanceof Leaf leftLeaf) {
+            MiddleEarthItem[] items = Arrays.copyOf(leftLeaf.items, leftLeaf.items.length + ((Leaf) right).items.length);
+            System.arraycopy(((Leaf) right).items, 0, items, leftLeaf.items.length, ((Leaf) right).items.length);
+            return new Leaf(items);
+        }
+        Node[] leftChildren = ((Branch) left).children;
+        Node[] rightChildren = ((Branch) right).children;
+        Node[] children = Arrays.copyOf(leftChildren, leftChildren.length + rightChildren.length);
+        System.arraycopy(rightChildren, 0, children, leftChildren.length, rightChildren.length);
+        return Branch.of(children);
+    }
+
+    private abstract static sealed class Node permits Leaf, Branch {
+        abstract int size();
+
+        // Items of a leaf, children of a branch
+        abstract int width();
+
+        abstract boolean isSmall();
+    }
+
+    private static final class Leaf extends Node {
+        private final MiddleEarthItem[] items;
+
+        Leaf(MiddleEarthItem[] items) {
+            this.items = items;
+        }
+
+        @Override
+        int size() {
+            return items.length;
+        }
+
+        @Override
+        int width() {
+            return items.length;
+        }
+
+        @Override
+        boolean isSmall() {
+            return items.length < SEGMENT_SIZE / 4;
+        }
+    }
+
+    private static final class Branch extends Node {
+        private final Node[] children;
+        // Number of items up to the end of each child; children are never empty, so ends are strictly increasing
+        private final int[] ends;
+
+        private Branch(Node[] children, int[] ends) {
+            this.children = children;
+            this.ends = ends;
+        }
+
+        static Branch of(Node[] children) {
+            int[] ends = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += children[i].size();
+                ends[i] = total;
+            }
+            return new Branch(children, ends);
+        }
+
+        @Override
+        int size() {
+            return ends.length == 0 ? 0 : ends[ends.length - 1];
+        }
+
+        @Override
+        int width() {
+            return children.length;
+        }
+
+        @Override
+        boolean isSmall() {
+            return children.length < BRANCHING / 4;
+        }
+
+        int childOf(int index) {
+            int found = Arrays.binarySearch(ends, index);
+            return found >= 0 ? found + 1 : -found - 1;
+        }
+
+        int start(int child) {
+            return child == 0 ? 0 : ends[child - 1];
+        }
+    }
+
+    // Full segments and full branches, in order
+    private static class Builder {
+        private final List<Node> segments = new ArrayList<>();
+        private MiddleEarthItem[] current = new MiddleEarthItem[SEGMENT_SIZE];
+        private int size;
+
+        void add(MiddleEarthItem item) {
+            current[size++] = item;
+            if (size == SEGMENT_SIZE) flush();
+        }
+
+        private void flush() {
+            segments.add(new Leaf(Arrays.copyOf(current, size)));
+            size = 0;
+        }
+
+        SegmentedItemList build() {
+            if (size > 0) flush();
+            if (segments.isEmpty()) return EMPTY;
+
+            List<Node> level = segments;
+            int height = 0;
+            do {
+                List<Node> branches = new ArrayList<>((level.size() + BRANCHING - 1) / BRANCHING);
+                for (int from = 0; from < level.size(); from += BRANCHING) {
+                    branches.add(Branch.of(level.subList(from, Math.min(from + BRANCHING, level.size())).toArray(new Node[0])));
+                }
+                level = branches;
+                height++;
+            } while (level.size() > 1);
+            return new SegmentedItemList((Branch) level.get(0), height);
+        }
+    }
+}
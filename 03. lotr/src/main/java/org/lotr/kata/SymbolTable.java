@@ -0,0 +1,50 @@
+package org.lotr.kata;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns names into dense int ids, so that columns and indexes store an int instead of a String reference.
+// Lookups never lock; interning a new name does, and publishes it before its id can be seen.
+public class SymbolTable {
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private int size;
+
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : intern(name);
+    }
+
+    private synchronized int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, 2 * size);
+        }
+        current[size] = name;
+        names = current;
+        ids.put(name, size);
+        return size++;
+    }
+
+    // UNKNOWN for names that were never interned
+    public int find(String name) {
+        return ids.getOrDefault(name, UNKNOWN);
+    }
+
+    public String nameOf(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IndexOutOfBoundsException("Unknown id: " + id);
+        }
+        return names[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,93 @@
+package org.lotr.kata;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel of days. Level L has 64 slots of 64^L days each and holds the entries due in the current
+// block of 64^(L+1) days, but not in the current block of 64^L days; reaching the block of a slot moves its entries
+// down a level. A bitmap of the occupied slots of each level leads straight to the next due entry, so advancing by any
+// number of days costs a few steps per entry, and nothing per empty day.
+//
+// Entries link themselves in their slot, so scheduling allocates nothing. An entry is in the wheel at most once.
+final class TimingWheel<T extends TimingWheel.Entry> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 10;
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private long now = 0;
+    private int size = 0;
+
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void schedule(long due, T entry) {
+        if (due <= now) {
+            throw new IllegalArgumentException("Due day " + due + " is not after day " + now);
+        }
+        entry.due = due;
+        insert(entry);
+        size++;
+    }
+
+    // Hands every entry due up to the target day to the consumer, in due order, then moves to the target day. While an
+    // entry is handled, now() is its due day and the consumer may schedule new entries after it.
+    @SuppressWarnings("unchecked")
+    void advance(long target, Consumer<T> consumer) {
+        while (true) {
+            int level = 0;
+            long candidates = 0;
+            for (; level < LEVELS; level++) {
+                int current = group(now, level);
+                // Level 0 holds the current day itself, upper levels only the blocks after the current one
+                candidates = occupied[level] & (level == 0 ? -1L << current : (-1L << current) << 1);
+                if (candidates != 0) break;
+            }
+            if (level == LEVELS) break;
+
+            int slot = Long.numberOfTrailingZeros(candidates);
+            int shift = level * BITS;
+            long blockStart = (((now >>> shift) & ~(long) (SLOTS - 1)) | slot) << shift;
+            if (blockStart > target) break;
+
+            Entry entry = slots[level][slot];
+            slots[level][slot] = null;
+            occupied[level] &= ~(1L << slot);
+            now = blockStart;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                if (level == 0) {
+                    size--;
+                    consumer.accept((T) entry);
+                } else {
+                    insert(entry);
+                }
+                entry = next;
+            }
+        }
+        now = Math.max(now, target);
+    }
+
+    private void insert(Entry entry) {
+        int level = entry.due == now ? 0 : (63 - Long.numberOfLeadingZeros(entry.due ^ now)) / BITS;
+        int slot = group(entry.due, level);
+        entry.next = slots[level][slot];
+        slots[level][slot] = entry;
+        occupied[level] |= 1L << slot;
+    }
+
+    private static int group(long day, int level) {
+        return (int) (day >>> (level * BITS)) & (SLOTS - 1);
+    }
+
+    static class Entry {
+        long due;
+        Entry next;
+    }
+}
@@ -0,0 +1,46 @@
+package org.lotr.kata;
+
+import java.util.Arrays;
+import java.util.List;
+
+// War-time prices as a multiplier per origin, applied when a price is read. Base prices are never rewritten, so
+// declaring or ending a war costs nothing and peace prices come back exactly as they were.
+public final class WarPricing {
+    private static final double[] WAR_MULTIPLIERS = new double[ItemOrigin.values().length];
+
+    static {
+        Arrays.fill(WAR_MULTIPLIERS, 1.0);
+        WAR_MULTIPLIERS[ItemOrigin.GONDOR.ordinal()] = 1.5;
+        WAR_MULTIPLIERS[ItemOrigin.ROHAN.ordinal()] = 1.3;
+        WAR_MULTIPLIERS[ItemOrigin.MORDOR.ordinal()] = 0.5;
+    }
+
+    private WarPricing() {
+    }
+
+    public static int priceOf(MiddleEarthItem item, boolean warTime) {
+        return warTime ? warPrice(item) : item.p;
+    }
+
+    // Same truncation as the historical in-place repricing when the war starts
+    public static int warPrice(MiddleEarthItem item) {
+        // Rings of Mordor keep their price
+        if (item.isRing && item.o == ItemOrigin.MORDOR) return item.p;
+        return (int) (item.p * WAR_MULTIPLIERS[item.o.ordinal()]);
+    }
+
+    // Batch mode for reports that need every price at once: one pass filling a primitive column
+    public static int[] materialize(List<MiddleEarthItem> items, boolean warTime) {
+        int[] prices = new int[items.size()];
+        if (!warTime) {
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = items.get(i).p;
+            }
+        } else {
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = warPrice(items.get(i));
+            }
+        }
+        return prices;
+    }
+}
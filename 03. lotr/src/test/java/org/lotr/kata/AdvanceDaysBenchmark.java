@@ -0,0 +1,71 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Moving an inventory N days ahead: one tick a day against the QualityTimeline jump
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=AdvanceDaysBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AdvanceDaysBenchmark {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "Elven Bow", "Orc Blade"};
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"1", "30", "365"})
+    private int days;
+
+    private List<MiddleEarthItem> template;
+    private List<MiddleEarthItem> items;
+    private DailyTick dailyTick;
+
+    @Setup(Level.Trial)
+    public void createTemplate() {
+        dailyTick = new DailyTick(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+
+        Random random = new Random(1);
+        template = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            template.add(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(10),
+                    random.nextInt(100), ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+        }
+    }
+
+    // Days degrade and remove items, so each invocation starts again from the same inventory
+    @Setup(Level.Invocation)
+    public void resetInventory() {
+        items = new ArrayList<>(size);
+        for (MiddleEarthItem item : template) {
+            items.add(new MiddleEarthItem(item.n, item.q, item.qual, item.o));
+        }
+    }
+
+    @Benchmark
+    public int dayAfterDay() {
+        for (int day = 0; day < days; day++) {
+            dailyTick.apply(items);
+        }
+        return items.size();
+    }
+
+    @Benchmark
+    public int timeline() {
+        Set<MiddleEarthItem> degraded = Collections.newSetFromMap(new IdentityHashMap<>());
+        degraded.addAll(new QualityTimeline(items).advance(days));
+        items.removeIf(degraded::contains);
+        return items.size();
+    }
+}
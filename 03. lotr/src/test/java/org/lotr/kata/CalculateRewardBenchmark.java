@@ -0,0 +1,52 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.lotr.kata.Characters.*;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=CalculateRewardBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculateRewardBenchmark {
+    private static final String[] TYPES = {HOBBIT, HUMAN, DWARF, ELF, WIZARD};
+    private static final CharacterType[] CHARACTER_TYPES = CharacterType.values();
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
+
+    private final List<MiddleEarthItem> items = List.of(
+            new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR),
+            new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA));
+
+    private int next;
+
+    @Benchmark
+    public int nestedMaps() {
+        int i = next++;
+        return legacyReward(QUEST_TYPES[(i >> 2) % 5], TYPES[i % 5], i & 3, items);
+    }
+
+    @Benchmark
+    public int rulesTable() {
+        int i = next++;
+        return QuestService.calculateReward(QuestRules.current(), QUEST_TYPES[(i >> 2) % 5], CHARACTER_TYPES[i % 5], i & 3, items);
+    }
+
+    // The reward as QuestService computed it before the rules table
+    private static int legacyReward(QuestType questType, String characterType, int companionCount, List<MiddleEarthItem> items) {
+        int baseReward = QUEST_BASE_REWARDS.getOrDefault(questType, 100);
+        double typeBonus = 1.0;
+        if (CHARACTER_BONUSES.containsKey(characterType) && CHARACTER_BONUSES.get(characterType).containsKey(questType)) {
+            typeBonus = CHARACTER_BONUSES.get(characterType).get(questType);
+        }
+        double finalReward = items.stream()
+                .mapToDouble(MiddleEarthItem::getRate)
+                .reduce(baseReward * typeBonus / (companionCount + 1), (reward, rate) -> reward * rate);
+        return (int) (Math.round(finalReward / 10) * 10);
+    }
+}
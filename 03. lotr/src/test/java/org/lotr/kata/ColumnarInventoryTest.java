@@ -0,0 +1,75 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarInventoryTest {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "The One Ring", "cursed Mithril Ring"};
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+
+    private InventoryManager objects;
+    private ColumnarInventory columns;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instance = InventoryManager.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+        objects = InventoryManager.getInstance();
+        columns = new ColumnarInventory();
+
+        Random random = new Random(7);
+        for (int i = 0; i < 3_000; i++) {
+            // Unique names so that the object inventory does not merge anything
+            String name = NAMES[random.nextInt(NAMES.length)] + " #" + i;
+            ItemOrigin origin = ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)];
+            MiddleEarthItem item = new MiddleEarthItem(name, 1 + random.nextInt(10), random.nextInt(120), origin);
+            if (random.nextInt(5) == 0) item.m = random.nextInt(10);
+
+            objects.addItem(item);
+            columns.add(item);
+        }
+    }
+
+    @Test
+    void dailyTickMatchesTheObjectLayout() {
+        for (int day = 0; day < 120; day++) {
+            objects.updateAllItems();
+            columns.updateAllItems();
+
+            assertThat(describe(columns.getAllItems())).isEqualTo(describe(objects.getAllItems()));
+        }
+    }
+
+    @Test
+    void finalPricesMatchTheObjectLayout() {
+        List<MiddleEarthItem> items = objects.getAllItems();
+        items.forEach(item -> item.p = WarPricing.warPrice(item));
+        ColumnarInventory repriced = new ColumnarInventory();
+        items.forEach(repriced::add);
+
+        for (String day : DAYS) {
+            for (boolean haggling : new boolean[]{true, false}) {
+                int[] finalPrices = repriced.getFinalPrices(haggling, day);
+
+                assertThat(finalPrices).hasSize(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    assertThat(finalPrices[i]).isEqualTo(items.get(i).getFinalPrice(haggling, day));
+                }
+            }
+        }
+    }
+
+    private static List<String> describe(List<MiddleEarthItem> items) {
+        return items.stream()
+                .map(item -> item.n + "|" + item.o + "|" + item.q + "|" + item.qual + "|" + item.p + "|" + item.m
+                        + "|" + item.isRing + item.isE + item.isGood + item.isMithril + item.isC)
+                .toList();
+    }
+}
@@ -0,0 +1,77 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark="ColumnarTickBenchmark -p size=10000000"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ColumnarTickBenchmark {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "Elven Bow", "Orc Blade"};
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<MiddleEarthItem> template;
+    private List<MiddleEarthItem> objects;
+    private ColumnarInventory columns;
+
+    @Setup(Level.Trial)
+    public void createTemplate() {
+        Random random = new Random(1);
+        template = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            template.add(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(10),
+                    random.nextInt(100), ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+        }
+    }
+
+    // Every tick degrades and removes items, so each invocation starts again from the same inventory
+    @Setup(Level.Invocation)
+    public void resetInventories() {
+        objects = new ArrayList<>(size);
+        columns = new ColumnarInventory();
+        for (MiddleEarthItem item : template) {
+            MiddleEarthItem copy = new MiddleEarthItem(item.n, item.q, item.qual, item.o);
+            objects.add(copy);
+            columns.add(copy);
+        }
+    }
+
+    @Benchmark
+    public int objectLayoutTick() {
+        for (MiddleEarthItem item : objects) {
+            item.updateQuality();
+        }
+        objects.removeIf(item -> item.qual <= 0 && !item.isE && !item.isGood && !item.isMithril);
+        return objects.size();
+    }
+
+    @Benchmark
+    public int columnarTick() {
+        columns.updateAllItems();
+        return columns.size();
+    }
+
+    @Benchmark
+    public int[] objectLayoutFinalPrices() {
+        int[] prices = new int[objects.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = objects.get(i).getFinalPrice(true, "Friday");
+        }
+        return prices;
+    }
+
+    @Benchmark
+    public int[] columnarFinalPrices() {
+        return columns.getFinalPrices(true, "Friday");
+    }
+}
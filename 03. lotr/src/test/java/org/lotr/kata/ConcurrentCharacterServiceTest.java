@@ -0,0 +1,90 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Multi-threaded stress tests: quest workers hammer the same characters to make lost updates show up
+class ConcurrentCharacterServiceTest {
+    private static final int THREADS = 8;
+    private static final int QUESTS = 20_000;
+
+    private ConcurrentCharacterService characters;
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        characters = new ConcurrentCharacterService();
+        workers = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        workers.shutdownNow();
+        assertThat(workers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void concurrentQuestsDoNotLoseCounts() throws Exception {
+        runOnEveryWorker(() -> {
+            for (int i = 0; i < QUESTS; i++) {
+                characters.completeQuest("Sam", i % 2 == 0);
+                characters.completeQuest("Merry", false);
+            }
+        });
+
+        assertThat(characters.getSuccessfulQuests("Sam")).isEqualTo(THREADS * QUESTS / 2);
+        assertThat(characters.getFailedQuests("Sam")).isEqualTo(THREADS * QUESTS / 2);
+        assertThat(characters.getCharacterLevel("Sam")).isEqualTo("Legendary");
+        assertThat(characters.getFailedQuests("Merry")).isEqualTo(THREADS * QUESTS);
+        assertThat(characters.getCharacterLevel("Merry")).isEqualTo("Novice");
+        assertThat(characters.isCharacterAvailable("Sam")).isTrue();
+    }
+
+    @Test
+    void stateFieldsDoNotOverlap() {
+        // Given
+        characters.addCharacter("Bilbo", "Hobbit", "Veteran");
+
+        // When
+        characters.completeQuest("Bilbo", false);
+        characters.setCharacterAvailability("Bilbo", false);
+        characters.promoteCharacter("Bilbo");
+        characters.promoteCharacter("Bilbo");
+
+        // Then
+        assertThat(characters.getCharacterLevel("Bilbo")).isEqualTo("Legendary");
+        assertThat(characters.isCharacterAvailable("Bilbo")).isFalse();
+        assertThat(characters.getFailedQuests("Bilbo")).isEqualTo(1);
+        assertThat(characters.getSuccessfulQuests("Bilbo")).isZero();
+        assertThat(characters.getCharacterType("Bilbo")).isEqualTo("Hobbit");
+        assertThatThrownBy(() -> characters.addCharacter("Smeagol", "Hobbit", "Wretched")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> characters.completeQuest("Sauron", true)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void runOnEveryWorker(Runnable worker) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(workers.submit(() -> {
+                start.await();
+                worker.run();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Multi-threaded stress tests: every scenario is repeated enough times to make lost updates and races show up
+class ConcurrentInventoryManagerTest {
+    private static final int THREADS = 8;
+    // Sword of quality 50 from Gondor costs 25 gold on a Tuesday without haggling
+    private static final int SWORD_PRICE = 25;
+
+    private ConcurrentInventoryManager inventory;
+    private ExecutorService shops;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new ConcurrentInventoryManager();
+        shops = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shops.shutdownNow();
+        assertThat(shops.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void concurrentMergesDoNotLoseQuantities() throws Exception {
+        runOnEveryShop(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                inventory.addItem(new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR));
+                inventory.addItem(new MiddleEarthItem("Bow " + (i % 16), 1, 60, ItemOrigin.LOTHLORIEN));
+            }
+        });
+
+        assertThat(inventory.getAllItems()).hasSize(17);
+        assertThat(inventory.findItem("Sword")).hasValueSatisfying(sword -> assertThat(sword.q).isEqualTo((THREADS - 1) * 10_000));
+    }
+
+    @Test
+    void everyUnitIsSoldExactlyOnceWhileTheDaysGoBy() throws Exception {
+        int stock = 50_000;
+        inventory.addItem(new MiddleEarthItem("Sword", stock, 50, ItemOrigin.GONDOR));
+        inventory.addItem(new MiddleEarthItem("Elven Bow", 1_000, 90, ItemOrigin.LOTHLORIEN));
+
+        List<Future<?>> sellers = new ArrayList<>();
+        for (int shop = 0; shop < THREADS - 1; shop++) {
+            sellers.add(shops.submit(() -> {
+                while (inventory.findItem("Sword").isPresent()) {
+                    inventory.sellItem("Sword", 1, false, "Tuesday");
+                }
+            }));
+        }
+        Future<?> days = shops.submit(() -> {
+            for (int day = 0; day < 20; day++) {
+                inventory.updateAllItems();
+                inventory.getInventoryReport(true, true, "price");
+            }
+        });
+
+        for (Future<?> seller : sellers) seller.get(30, TimeUnit.SECONDS);
+        days.get(30, TimeUnit.SECONDS);
+
+        // Quality drops during the run but the price was set when the sword was forged
+        assertThat(inventory.getSales("Sword")).isEqualTo((long) stock * SWORD_PRICE);
+        assertThat(inventory.findItem("Sword")).isEmpty();
+    }
+
+    @Test
+    void aSaleAndARemovalOfTheLastUnitNeverBothSucceed() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        for (int round = 1; round <= 2_000; round++) {
+            inventory.addItem(new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR));
+            long salesBefore = inventory.getSales("Sword");
+
+            Future<?> sale = shops.submit(() -> {
+                start.await();
+                inventory.sellItem("Sword", 1, false, "Tuesday");
+                return null;
+            });
+            Future<?> removal = shops.submit(() -> {
+                start.await();
+                inventory.removeItem("Sword", 1);
+                return null;
+            });
+            sale.get(10, TimeUnit.SECONDS);
+            removal.get(10, TimeUnit.SECONDS);
+
+            assertThat(inventory.getSales("Sword") - salesBefore).isIn(0L, (long) SWORD_PRICE);
+            assertThat(inventory.getAllItems()).isEmpty();
+        }
+    }
+
+    @Test
+    void warTimeRepricingIsNeverInterleavedWithASale() throws Exception {
+        inventory.addItem(new MiddleEarthItem("Gondorian Sword", 1_000_000, 60, ItemOrigin.GONDOR));
+
+        Future<?> war = shops.submit(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                inventory.setWarTime(!inventory.isWarTime());
+            }
+        });
+        runOnEveryShop(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                inventory.sellItem("Gondorian Sword", 1, false, "Tuesday");
+            }
+        });
+        war.get(30, TimeUnit.SECONDS);
+
+        assertThat(inventory.findItem("Gondorian Sword"))
+                .hasValueSatisfying(sword -> assertThat(sword.q).isEqualTo(1_000_000 - (THREADS - 1) * 1_000));
+    }
+
+    private void runOnEveryShop(Runnable shop) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS - 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS - 1; i++) {
+            futures.add(shops.submit(() -> {
+                start.await();
+                shop.run();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark="DailyTickBenchmark -p parallelism=1,2,4,8"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DailyTickBenchmark {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "Elven Bow", "Orc Blade"};
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private List<MiddleEarthItem> template;
+    private List<MiddleEarthItem> items;
+    private ForkJoinPool pool;
+    private DailyTick dailyTick;
+
+    @Setup(Level.Trial)
+    public void createTemplate() {
+        pool = new ForkJoinPool(parallelism);
+        dailyTick = new DailyTick(pool, 1);
+
+        Random random = new Random(1);
+        template = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            template.add(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(10),
+                    random.nextInt(100), ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    // Ticks degrade and remove items, so each invocation starts again from the same inventory
+    @Setup(Level.Invocation)
+    public void resetInventory() {
+        items = new ArrayList<>(size);
+        for (MiddleEarthItem item : template) {
+            items.add(new MiddleEarthItem(item.n, item.q, item.qual, item.o));
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        dailyTick.apply(items);
+        return items.size();
+    }
+}
@@ -0,0 +1,132 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DailyTickTest {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "The One Ring", "Elven Bow"};
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void parallelTickGivesTheSameInventoryAsTheSequentialOne() {
+        List<MiddleEarthItem> sequential = randomInventory(60_000);
+        List<MiddleEarthItem> parallel = copyOf(sequential);
+        DailyTick sequentialTick = new DailyTick(pool, Integer.MAX_VALUE);
+        DailyTick parallelTick = new DailyTick(pool, 1);
+
+        for (int day = 0; day < 60; day++) {
+            oneItemAtATime(sequential);
+            parallelTick.apply(parallel);
+
+            assertThat(describe(parallel)).isEqualTo(describe(sequential));
+        }
+
+        List<MiddleEarthItem> again = copyOf(parallel);
+        sequentialTick.apply(again);
+        parallelTick.apply(parallel);
+        assertThat(describe(again)).isEqualTo(describe(parallel));
+    }
+
+    @Test
+    void collectsDegradedItemsInInventoryOrderWithoutRemovingThem() {
+        // Given
+        MiddleEarthItem orcBlade = new MiddleEarthItem("Orc Blade", 1, 2, ItemOrigin.MORDOR);
+        MiddleEarthItem sword = new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR);
+        MiddleEarthItem pipeWeed = new MiddleEarthItem("Pipe Weed", 1, 1, ItemOrigin.SHIRE);
+        List<MiddleEarthItem> items = new ArrayList<>(List.of(orcBlade, sword, pipeWeed));
+
+        // When
+        List<MiddleEarthItem> degraded = new DailyTick().updateAndCollectDegraded(items);
+
+        // Then
+        assertThat(degraded).containsExactly(orcBlade, pipeWeed);
+        assertThat(items).containsExactly(orcBlade, sword, pipeWeed);
+        assertThat(sword.qual).isEqualTo(49);
+    }
+
+    @Test
+    void removesDegradedItemsFromAnyKindOfList() {
+        for (List<MiddleEarthItem> items : List.<List<MiddleEarthItem>>of(new LinkedList<>(), new CopyOnWriteArrayList<>())) {
+            // Given
+            MiddleEarthItem orcBlade = new MiddleEarthItem("Orc Blade", 1, 2, ItemOrigin.MORDOR);
+            MiddleEarthItem sword = new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR);
+            MiddleEarthItem pipeWeed = new MiddleEarthItem("Pipe Weed", 1, 1, ItemOrigin.SHIRE);
+            MiddleEarthItem bow = new MiddleEarthItem("Elven Bow", 1, 70, ItemOrigin.LOTHLORIEN);
+            items.addAll(List.of(orcBlade, sword, pipeWeed, bow));
+
+            // When
+            new DailyTick().apply(items);
+
+            // Then
+            assertThat(items).containsExactly(sword, bow);
+        }
+    }
+
+    @Test
+    void rejectsANonPositiveThreshold() {
+        assertThatThrownBy(() -> new DailyTick(pool, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // The historical InventoryManager.updateAllItems loop
+    private static void oneItemAtATime(List<MiddleEarthItem> items) {
+        List<MiddleEarthItem> itemsToRemove = new ArrayList<>();
+        for (MiddleEarthItem item : items) {
+            item.updateQuality();
+            if (item.qual <= 0 && !item.isE && !item.isGood && !item.isMithril) {
+                itemsToRemove.add(item);
+            }
+        }
+        items.removeAll(itemsToRemove);
+    }
+
+    private static List<MiddleEarthItem> randomInventory(int size) {
+        Random random = new Random(3);
+        List<MiddleEarthItem> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            MiddleEarthItem item = new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(10),
+                    random.nextInt(100), ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]);
+            item.m = random.nextInt(5);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static List<MiddleEarthItem> copyOf(List<MiddleEarthItem> items) {
+        List<MiddleEarthItem> copy = new ArrayList<>();
+        for (MiddleEarthItem item : items) {
+            MiddleEarthItem clone = new MiddleEarthItem(item.n, item.q, item.qual, item.o);
+            clone.p = item.p;
+            clone.m = item.m;
+            clone.isRing = item.isRing;
+            clone.isE = item.isE;
+            clone.isGood = item.isGood;
+            clone.isMithril = item.isMithril;
+            clone.isC = item.isC;
+            copy.add(clone);
+        }
+        return copy;
+    }
+
+    private static List<String> describe(List<MiddleEarthItem> items) {
+        return items.stream()
+                .map(item -> item.n + "|" + item.o + "|" + item.q + "|" + item.qual + "|" + item.p + "|" + item.m)
+                .toList();
+    }
+}
@@ -0,0 +1,85 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Transfers per second, on a fresh ledger for every batch of transfers so that the log does not grow without bound
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=GoldLedgerBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoldLedgerBenchmark {
+    private static final int TRANSFERS = 100_000;
+    private static final String[] NAMES = {"Frodo", "Gandalf", "Aragorn", "Legolas", "Gimli", "Boromir", "Sam", "Merry", "Pippin"};
+    private static final int[] PARTY = {0, 6, 7, 8};
+
+    private GoldLedger history;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        history = new GoldLedger();
+        for (int character = 0; character < NAMES.length; character++) {
+            history.deposit(character, 1_000);
+        }
+        for (int i = 0; i < 1_000_000; i++) {
+            history.transfer(i % NAMES.length, (i + 1) % NAMES.length, 1);
+        }
+    }
+
+    // The gold of MiddleEarthManager before the ledger
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public Map<String, Integer> hashMapTransfers() {
+        Map<String, Integer> gold = new HashMap<>();
+        for (String name : NAMES) {
+            gold.put(name, 1_000);
+        }
+        for (int i = 0; i < TRANSFERS; i++) {
+            String from = NAMES[i % NAMES.length];
+            String to = NAMES[(i + 1) % NAMES.length];
+            if (gold.get(from) >= 1) {
+                gold.put(from, gold.get(from) - 1);
+                gold.put(to, gold.getOrDefault(to, 0) + 1);
+            }
+        }
+        return gold;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public GoldLedger ledgerTransfers() {
+        GoldLedger ledger = new GoldLedger();
+        for (int character = 0; character < NAMES.length; character++) {
+            ledger.deposit(character, 1_000);
+        }
+        for (int i = 0; i < TRANSFERS; i++) {
+            ledger.transfer(i % NAMES.length, (i + 1) % NAMES.length, 1);
+        }
+        return ledger;
+    }
+
+    // A quest reward shared by a party of four: four transfers per distribution
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public GoldLedger ledgerDistributions() {
+        GoldLedger ledger = new GoldLedger();
+        for (int i = 0; i < TRANSFERS / PARTY.length; i++) {
+            ledger.distribute(25, PARTY);
+        }
+        return ledger;
+    }
+
+    // Balance at points spread over a log of a million transfers
+    @Benchmark
+    public long balanceAt() {
+        int transfer = Math.floorMod(next++ * 7_919, history.transferCount());
+        return history.balanceAt(transfer % NAMES.length, transfer);
+    }
+}
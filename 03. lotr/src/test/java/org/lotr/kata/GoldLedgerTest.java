@@ -0,0 +1,95 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoldLedgerTest {
+    private static final int FRODO = 0;
+    private static final int SAM = 1;
+    private static final int GANDALF = 2;
+
+    private final GoldLedger ledger = new GoldLedger(4);
+
+    @Test
+    void transfersMoveGoldAndAreLogged() {
+        // Given
+        ledger.deposit(FRODO, 100);
+
+        // When
+        ledger.transfer(FRODO, SAM, 30);
+        ledger.withdraw(SAM, 10);
+
+        // Then
+        assertThat(ledger.balanceOf(FRODO)).isEqualTo(70);
+        assertThat(ledger.balanceOf(SAM)).isEqualTo(20);
+        assertThat(ledger.accounts()).containsExactly(FRODO, SAM);
+        assertThat(ledger.transferCount()).isEqualTo(3);
+        assertThat(ledger.debitOf(1)).isEqualTo(FRODO);
+        assertThat(ledger.creditOf(1)).isEqualTo(SAM);
+        assertThat(ledger.amountOf(1)).isEqualTo(30);
+        assertThat(ledger.creditOf(2)).isEqualTo(GoldLedger.EXTERNAL);
+    }
+
+    @Test
+    void rejectedOperationsLeaveNoTransferBehind() {
+        ledger.deposit(FRODO, 50);
+
+        assertThatThrownBy(() -> ledger.transfer(FRODO, SAM, 60))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("60 needed");
+        assertThatThrownBy(() -> ledger.withdraw(GANDALF, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no gold account");
+        assertThatThrownBy(() -> ledger.distribute(10, new int[]{SAM, -5}))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(ledger.transferCount()).isEqualTo(1);
+        assertThat(ledger.hasAccount(SAM)).isFalse();
+    }
+
+    @Test
+    void balancesCanBeReadAtAnyPointOfTheLog() {
+        // Given random transfers, spanning several checkpoints
+        Random random = new Random(42);
+        long[][] expected = new long[1_001][3];
+        ledger.distribute(1_000, new int[]{FRODO, SAM, GANDALF});
+        int start = ledger.transferCount();
+        expected[0] = new long[]{1_000, 1_000, 1_000};
+        for (int i = 1; i <= 1_000; i++) {
+            int from = random.nextInt(3);
+            int to = random.nextInt(3);
+            long gold = random.nextInt((int) ledger.balanceOf(from) + 1);
+            ledger.transfer(from, to, gold);
+            expected[i] = new long[]{ledger.balanceOf(FRODO), ledger.balanceOf(SAM), ledger.balanceOf(GANDALF)};
+        }
+
+        // Then
+        for (int i = 0; i <= 1_000; i++) {
+            for (int character = 0; character < 3; character++) {
+                assertThat(ledger.balanceAt(character, start + i)).isEqualTo(expected[i][character]);
+            }
+        }
+        assertThat(ledger.balanceAt(FRODO, 0)).isZero();
+    }
+
+    @Test
+    void managerGoldGoesThroughTheLedger() {
+        // Given
+        MiddleEarthManager manager = new MiddleEarthManager(new InventoryManager(), new QuestDatabase(), new CharacterService());
+        manager.addItemToInventory("Pipe Weed", 1, 30, ItemOrigin.SHIRE);
+        int transfers = manager.getGoldLedger().transferCount();
+
+        // When Sam pays Frodo for some pipe weed
+        manager.tradeBetweenCharacters("Frodo", "Sam", "Pipe Weed", 40);
+
+        // Then
+        GoldLedger ledger = manager.getGoldLedger();
+        assertThat(ledger.transferCount()).isEqualTo(transfers + 1);
+        assertThat(ledger.balanceOf(Characters.CHARACTER_IDS.find("Frodo"))).isEqualTo(140);
+        assertThat(manager.getStateOfMiddleEarth()).contains("Sam: 60 gold");
+    }
+}
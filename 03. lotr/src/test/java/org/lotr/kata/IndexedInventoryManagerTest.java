@@ -0,0 +1,222 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedInventoryManagerTest {
+    private static final String[] NAMES = {"Sword", "Elven Bow", "Mithril Shirt", "cursed Dagger", "Orc Blade", "Ring of Power", "The One Ring", "Pipe Weed"};
+
+    private InventoryManager legacy;
+    private IndexedInventoryManager indexed;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instance = InventoryManager.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+        legacy = InventoryManager.getInstance();
+        indexed = new IndexedInventoryManager();
+    }
+
+    @Test
+    void mergesItemsSharingNameOriginAndQuality() {
+        // Given
+        indexed.addItem(new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR));
+
+        // When
+        indexed.addItem(new MiddleEarthItem("Sword", 2, 50, ItemOrigin.GONDOR));
+        indexed.addItem(new MiddleEarthItem("Sword", 4, 51, ItemOrigin.GONDOR));
+
+        // Then
+        assertThat(indexed.getAllItems())
+                .extracting(item -> item.q)
+                .containsExactly(3, 4);
+    }
+
+    @Test
+    void findsTheFirstItemWithAGivenName() {
+        // Given
+        MiddleEarthItem first = new MiddleEarthItem("Sword", 1, 50, ItemOrigin.GONDOR);
+        indexed.addItem(first);
+        indexed.addItem(new MiddleEarthItem("Sword", 1, 60, ItemOrigin.ROHAN));
+
+        // When/Then
+        assertThat(indexed.findItem("Sword")).containsSame(first);
+        assertThat(indexed.findItem("Axe")).isEmpty();
+    }
+
+    @Test
+    void ticksMoveItemsToTheirNewKey() {
+        // Given
+        MiddleEarthItem first = new MiddleEarthItem("Sword", 1, 11, ItemOrigin.GONDOR);
+        MiddleEarthItem second = new MiddleEarthItem("Sword", 1, 10, ItemOrigin.GONDOR);
+        indexed.addItem(first);
+        indexed.addItem(second);
+
+        // When
+        indexed.updateAllItems();
+        indexed.addItem(new MiddleEarthItem("Sword", 2, 10, ItemOrigin.GONDOR));
+        indexed.addItem(new MiddleEarthItem("Sword", 4, 9, ItemOrigin.GONDOR));
+
+        // Then
+        assertThat(indexed.getAllItems()).containsExactly(first, second);
+        assertThat(first.q).isEqualTo(3);
+        assertThat(second.q).isEqualTo(5);
+    }
+
+    @Test
+    void behavesLikeTheListBackedInventory() {
+        Random random = new Random(42);
+
+        for (int operation = 0; operation < 5_000; operation++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            ItemOrigin origin = ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)];
+            int quality = random.nextInt(100);
+            int quantity = 1 + random.nextInt(5);
+
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    legacy.addItem(new MiddleEarthItem(name, quantity, quality, origin));
+                    indexed.addItem(new MiddleEarthItem(name, quantity, quality, origin));
+                }
+                case 2 -> {
+                    legacy.removeItem(name, quantity);
+                    indexed.removeItem(name, quantity);
+                }
+                case 3 -> {
+                    boolean haggling = random.nextBoolean();
+                    ignoreWartimeRefusal(() -> legacy.sellItem(name, quantity, haggling, "Sunday"));
+                    ignoreWartimeRefusal(() -> indexed.sellItem(name, quantity, haggling, "Sunday"));
+                }
+                case 4 -> {
+                    legacy.updateAllItems();
+                    indexed.updateAllItems();
+                }
+                default -> {
+                    boolean warTime = random.nextInt(10) == 0 ? !legacy.isWarTime() : legacy.isWarTime();
+                    legacy.setWarTime(warTime);
+                    indexed.setWarTime(warTime);
+                }
+            }
+
+            assertSameInventory();
+        }
+    }
+
+    @Test
+    void runningValuationMatchesAFullRescan() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            IndexedInventoryManager inventory = new IndexedInventoryManager();
+
+            for (int operation = 0; operation < 2_000; operation++) {
+                String name = NAMES[random.nextInt(NAMES.length)];
+                int quantity = 1 + random.nextInt(5);
+
+                switch (random.nextInt(5)) {
+                    case 0, 1 -> inventory.addItem(new MiddleEarthItem(name, quantity, random.nextInt(100),
+                            ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+                    case 2 -> inventory.removeItem(name, quantity);
+                    case 3 -> ignoreWartimeRefusal(() -> inventory.sellItem(name, quantity, random.nextBoolean(), "Monday"));
+                    default -> {
+                        if (random.nextBoolean()) {
+                            inventory.updateAllItems();
+                        } else {
+                            inventory.setWarTime(!inventory.isWarTime());
+                        }
+                    }
+                }
+
+                assertThat(inventory.getTotalInventoryValue()).isEqualTo(rescanValue(inventory, inventory.getAllItems()));
+                for (ItemOrigin origin : ItemOrigin.values()) {
+                    assertThat(inventory.getTotalValueByOrigin(origin)).isEqualTo(rescanValue(inventory, inventory.getItemsFromOrigin(origin)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sortedViewsFollowTheInventoryThroughTicksAndWars() {
+        Random random = new Random(3);
+        IndexedInventoryManager inventory = new IndexedInventoryManager();
+
+        for (int operation = 0; operation < 3_000; operation++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            switch (random.nextInt(6)) {
+                case 0, 1, 2 -> inventory.addItem(new MiddleEarthItem(name, 1 + random.nextInt(5), random.nextInt(100),
+                        ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+                case 3 -> inventory.removeItem(name, 1 + random.nextInt(5));
+                case 4 -> inventory.updateAllItems();
+                default -> inventory.setWarTime(!inventory.isWarTime());
+            }
+
+            List<MiddleEarthItem> byPrice = inventory.getAllItems().stream()
+                    .sorted((a, b) -> Integer.compare(inventory.getPrice(b), inventory.getPrice(a)))
+                    .toList();
+            assertThat(inventory.getMostExpensiveItems(10)).isEqualTo(byPrice.stream().limit(10).toList());
+            assertThat(inventory.getItemsPricedBetween(40, 120))
+                    .isEqualTo(byPrice.stream().filter(item -> inventory.getPrice(item) >= 40 && inventory.getPrice(item) <= 120).toList());
+            for (ItemOrigin origin : ItemOrigin.values()) {
+                assertThat(inventory.getItemsFromOriginByName(origin)).isEqualTo(inventory.getItemsFromOrigin(origin).stream()
+                        .sorted(Comparator.comparing(item -> item.n))
+                        .toList());
+            }
+        }
+    }
+
+    private static String topOfReport(InventoryManagerInterface inventory, String sortBy) {
+        StringWriter report = new StringWriter();
+        try {
+            inventory.writeInventoryReport(report, false, true, sortBy, 10);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    private static int rescanValue(InventoryManagerInterface inventory, List<MiddleEarthItem> items) {
+        int total = 0;
+        for (MiddleEarthItem item : items) {
+            total += inventory.getPrice(item) * item.q;
+        }
+        return total;
+    }
+
+    private void assertSameInventory() {
+        assertThat(describe(indexed.getAllItems())).isEqualTo(describe(legacy.getAllItems()));
+        assertThat(indexed.hasRing()).isEqualTo(legacy.hasRing());
+        assertThat(indexed.getTotalInventoryValue()).isEqualTo(legacy.getTotalInventoryValue());
+        for (String sortBy : List.of("name", "price", "origin")) {
+            assertThat(indexed.getInventoryReport(true, true, sortBy)).isEqualTo(legacy.getInventoryReport(true, true, sortBy));
+            assertThat(topOfReport(indexed, sortBy)).isEqualTo(topOfReport(legacy, sortBy));
+        }
+        for (ItemOrigin origin : ItemOrigin.values()) {
+            assertThat(describe(indexed.getItemsFromOrigin(origin))).isEqualTo(describe(legacy.getItemsFromOrigin(origin)));
+            assertThat(indexed.getTotalValueByOrigin(origin)).isEqualTo(legacy.getTotalValueByOrigin(origin));
+        }
+    }
+
+    private static void ignoreWartimeRefusal(Runnable sale) {
+        try {
+            sale.run();
+        } catch (IllegalStateException e) {
+            // Selling Mordor items during wartime fails after the sale, on both implementations
+        }
+    }
+
+    private static List<String> describe(List<MiddleEarthItem> items) {
+        return items.stream()
+                .map(item -> item.n + "|" + item.o + "|" + item.q + "|" + item.qual + "|" + item.p + "|" + item.m)
+                .toList();
+    }
+}
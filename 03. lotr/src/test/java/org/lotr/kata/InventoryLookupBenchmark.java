@@ -0,0 +1,65 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmarks test -Dbenchmark=InventoryLookupBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryLookupBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"list", "indexed"})
+    private String implementation;
+
+    private InventoryManagerInterface inventory;
+
+    @Setup(Level.Trial)
+    public void fillInventory() throws Exception {
+        inventory = implementation.equals("list") ? freshListInventory() : new IndexedInventoryManager();
+        for (int i = 0; i < size; i++) {
+            inventory.addItem(new MiddleEarthItem(nameOf(i), 1_000, 60, ItemOrigin.values()[i % ItemOrigin.values().length]));
+        }
+    }
+
+    @Benchmark
+    public MiddleEarthItem findByName() {
+        return inventory.findItem(randomName()).orElseThrow();
+    }
+
+    @Benchmark
+    public void mergeExistingItem() {
+        int i = ThreadLocalRandom.current().nextInt(size);
+        inventory.addItem(new MiddleEarthItem(nameOf(i), 1, 60, ItemOrigin.values()[i % ItemOrigin.values().length]));
+    }
+
+    @Benchmark
+    public void removeThenAddBack() {
+        int i = ThreadLocalRandom.current().nextInt(size);
+        inventory.removeItem(nameOf(i), 1);
+        inventory.addItem(new MiddleEarthItem(nameOf(i), 1, 60, ItemOrigin.values()[i % ItemOrigin.values().length]));
+    }
+
+    private String randomName() {
+        return nameOf(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    private static String nameOf(int i) {
+        return "Item-" + i;
+    }
+
+    private static InventoryManager freshListInventory() throws Exception {
+        Field instance = InventoryManager.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+        return InventoryManager.getInstance();
+    }
+}
@@ -135,4 +135,22 @@ public class InventoryManagerTest {
                     .findFirst()
                     .orElse(null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void readersKeepTheViewTheyWereGiven() {
+        // Given
+        inventoryManager.addItem(new MiddleEarthItem("Elven Bread", 1, 50, ItemOrigin.LOTHLORIEN));
+        inventoryManager.addItem(new MiddleEarthItem("Pipe Weed", 3, 30, ItemOrigin.SHIRE));
+        List<MiddleEarthItem> snapshot = inventoryManager.getAllItems();
+
+        // When
+        inventoryManager.removeItem("Elven Bread", 1);
+        inventoryManager.addItem(new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA));
+
+        // Then
+        assertThat(snapshot).extracting(item -> item.n).containsExactly("Elven Bread", "Pipe Weed");
+        assertThat(inventoryManager.getAllItems()).extracting(item -> item.n).containsExactly("Pipe Weed", "Mithril Shirt");
+        assertThatThrownBy(() -> snapshot.add(new MiddleEarthItem("Orc Blade", 1, 40, ItemOrigin.MORDOR)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
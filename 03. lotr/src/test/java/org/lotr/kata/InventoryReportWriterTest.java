@@ -0,0 +1,119 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryReportWriterTest {
+    private static final String[] NAMES = {"Sword", "Elven Bow", "Mithril Shirt", "cursed Dagger", "Ring of Power", "The One Ring"};
+
+    @Test
+    void writesTheHistoricalReportFormat() throws Exception {
+        // Given
+        List<MiddleEarthItem> items = List.of(
+                new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR),
+                new MiddleEarthItem("Gondorian Sword", 5, 85, ItemOrigin.GONDOR));
+        InventoryReportWriter writer = new InventoryReportWriter(true, true, InventoryReportWriter.NO_LIMIT);
+        StringWriter out = new StringWriter();
+
+        // When
+        writer.write(writer.order(items, "price"), 42, out);
+
+        // Then
+        assertThat(out.toString()).isEqualTo("""
+                INVENTORY REPORT
+                ----------------
+                Gondorian Sword (GONDOR) - Qty: 5, Price: 170, Quality: 85 [Good]
+                The One Ring (MORDOR) - Qty: 1, Price: 100, Quality: 100 [Magic Level: 100]
+
+                Total Value: 42 gold coins""");
+    }
+
+    @Test
+    void topItemsAreTheFirstLinesOfTheFullReport() throws Exception {
+        List<MiddleEarthItem> items = randomInventory();
+
+        for (String sortBy : List.of("name", "price", "origin", "none")) {
+            for (boolean includeRings : new boolean[]{true, false}) {
+                List<String> full = lines(report(items, includeRings, sortBy, InventoryReportWriter.NO_LIMIT));
+                List<String> top = lines(report(items, includeRings, sortBy, 25));
+
+                assertThat(top).hasSize(25).isEqualTo(full.subList(0, 25));
+            }
+        }
+    }
+
+    @Test
+    void streamsTheSameBytesToWritersStreamsAndChannels() throws Exception {
+        List<MiddleEarthItem> items = randomInventory();
+        InventoryReportWriter writer = new InventoryReportWriter(true, true, InventoryReportWriter.NO_LIMIT, 64);
+        Iterable<MiddleEarthItem> ordered = writer.order(items, "name");
+
+        StringWriter text = new StringWriter();
+        writer.write(ordered, 1_000, text);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writer.write(ordered, 1_000, stream);
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        writer.write(ordered, 1_000, Channels.newChannel(channel));
+
+        assertThat(stream.toString(StandardCharsets.UTF_8)).isEqualTo(text.toString());
+        assertThat(channel.toString(StandardCharsets.UTF_8)).isEqualTo(text.toString());
+    }
+
+    @Test
+    void stateOfMiddleEarthOnlyNeedsTheReportTitle() throws Exception {
+        StringWriter out = new StringWriter();
+
+        new IndexedInventoryManager().writeInventoryReport(out, true, true, "price", 0);
+
+        assertThat(out.toString()).startsWith("INVENTORY REPORT\n----------------\n\nTotal Value");
+    }
+
+    @Test
+    void aZeroLimitRanksNothing() {
+        InventoryReportWriter writer = new InventoryReportWriter(true, true, 0);
+
+        for (String sortBy : List.of("name", "price", "origin", "none")) {
+            assertThat(writer.order(randomInventory(), sortBy)).isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsANegativeLimit() {
+        assertThatThrownBy(() -> new InventoryReportWriter(true, true, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String report(List<MiddleEarthItem> items, boolean includeRings, String sortBy, int limit) throws Exception {
+        InventoryReportWriter writer = new InventoryReportWriter(includeRings, true, limit);
+        StringWriter out = new StringWriter();
+        writer.write(writer.order(items, sortBy), 0, out);
+        return out.toString();
+    }
+
+    private static List<String> lines(String report) {
+        List<String> lines = Arrays.asList(report.split("\n"));
+        // Drop the title, the separator, the blank line and the total
+        return lines.subList(2, lines.size() - 2);
+    }
+
+    private static List<MiddleEarthItem> randomInventory() {
+        Random random = new Random(11);
+        List<MiddleEarthItem> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(5), random.nextInt(100),
+                    ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+        }
+        return items;
+    }
+}
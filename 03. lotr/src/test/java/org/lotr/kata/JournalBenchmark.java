@@ -0,0 +1,112 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark="JournalBenchmark -p size=1000000"
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class JournalBenchmark {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "Elven Bow", "Orc Blade"};
+
+    @State(Scope.Thread)
+    public static class Appending {
+        @Param({"1", "1024", "0"})
+        private int syncEvery;
+
+        private Path directory;
+        private JournaledInventoryManager inventory;
+        private MiddleEarthItem[] items;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("journal-append");
+            inventory = new JournaledInventoryManager(directory, syncEvery, JournaledInventoryManager.DEFAULT_SNAPSHOT_EVERY);
+            items = randomItems(1_024);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            inventory.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovering {
+        @Param({"10000000"})
+        private int size;
+
+        @Param({"log", "snapshot"})
+        private String source;
+
+        private Path directory;
+
+        // Every item has its own name, so that the inventory really holds size items after recovery
+        @Setup(Level.Trial)
+        public void write() throws IOException {
+            directory = Files.createTempDirectory("journal-recovery");
+            try (JournaledInventoryManager inventory = new JournaledInventoryManager(directory, 0, Integer.MAX_VALUE)) {
+                Random random = new Random(1);
+                for (int i = 0; i < size; i++) {
+                    inventory.addItem(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)] + " #" + i, 1 + random.nextInt(10),
+                            random.nextInt(100), ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+                }
+                if (source.equals("snapshot")) {
+                    inventory.snapshot();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            JournalBenchmark.delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void append(Appending state) {
+        MiddleEarthItem item = state.items[state.next++ & (state.items.length - 1)];
+        state.inventory.addItem(new MiddleEarthItem(item.n, 1, item.qual, item.o));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int recover(Recovering state) throws IOException {
+        try (JournaledInventoryManager inventory = new JournaledInventoryManager(state.directory)) {
+            return inventory.getTotalInventoryValue();
+        }
+    }
+
+    private static MiddleEarthItem[] randomItems(int count) {
+        Random random = new Random(1);
+        MiddleEarthItem[] items = new MiddleEarthItem[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)], 1, random.nextInt(100),
+                    ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]);
+        }
+        return items;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class JournaledInventoryManagerTest {
+    private static final String[] NAMES = {"Sword", "Elven Bow", "Mithril Shirt", "cursed Dagger", "Orc Blade", "Ring of Power", "The One Ring"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheInventoryAfterARestart() throws Exception {
+        // Given
+        IndexedInventoryManager expected = new IndexedInventoryManager();
+        Random random = new Random(17);
+        try (JournaledInventoryManager journaled = new JournaledInventoryManager(directory, 64, 700)) {
+            for (int operation = 0; operation < 3_000; operation++) {
+                apply(random, journaled, expected);
+            }
+        }
+
+        // When
+        try (JournaledInventoryManager recovered = new JournaledInventoryManager(directory)) {
+            // Then
+            assertSameInventory(recovered, expected);
+
+            // And the recovered inventory keeps on logging
+            recovered.addItem(new MiddleEarthItem("Palantir", 1, 70, ItemOrigin.ISENGARD));
+            expected.addItem(new MiddleEarthItem("Palantir", 1, 70, ItemOrigin.ISENGARD));
+        }
+        try (JournaledInventoryManager recovered = new JournaledInventoryManager(directory)) {
+            assertSameInventory(recovered, expected);
+        }
+    }
+
+    @Test
+    void aFailingSnapshotDoesNotHideAWartimeRefusal() throws Exception {
+        try (JournaledInventoryManager journaled = new JournaledInventoryManager(directory, 64, 3)) {
+            // Given
+            journaled.addItem(new MiddleEarthItem("Orc Shield", 1, 40, ItemOrigin.MORDOR));
+            journaled.setWarTime(true);
+            // The snapshot is written next to a directory in its way
+            Files.createDirectories(directory.resolve("inventory.snapshot.tmp").resolve("in-the-way"));
+
+            // When
+            Throwable refusal = catchThrowable(() -> journaled.sellItem("Orc Shield", 1, false, DayOfWeek.MONDAY));
+
+            // Then
+            assertThat(refusal).isInstanceOf(IllegalStateException.class).hasMessageContaining("Mordor during wartime");
+            assertThat(refusal.getSuppressed()).singleElement().isInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    @Test
+    void snapshotsKeepItemsThatShareAKeyAfterATick() throws Exception {
+        // Given
+        try (JournaledInventoryManager journaled = new JournaledInventoryManager(directory)) {
+            journaled.addItem(new MiddleEarthItem("Sword", 1, 51, ItemOrigin.GONDOR));
+            journaled.updateAllItems();
+            journaled.addItem(new MiddleEarthItem("Sword", 2, 51, ItemOrigin.GONDOR));
+            journaled.updateAllItems();
+
+            // When
+            journaled.snapshot();
+        }
+
+        // Then
+        try (JournaledInventoryManager recovered = new JournaledInventoryManager(directory)) {
+            assertThat(recovered.getAllItems()).extracting(item -> item.q + "@" + item.qual).containsExactly("1@49", "2@50");
+        }
+    }
+
+    @Test
+    void aLogNewerThanItsSnapshotIsRefused() throws Exception {
+        // Given a snapshot whose move over the previous one was lost, while the log reset after it was not
+        Path snapshot = directory.resolve("inventory.snapshot");
+        Path previous = directory.resolve("previous.snapshot");
+        try (JournaledInventoryManager journaled = new JournaledInventoryManager(directory)) {
+            journaled.addItem(new MiddleEarthItem("Sword", 3, 50, ItemOrigin.GONDOR));
+            journaled.snapshot();
+            Files.copy(snapshot, previous);
+            journaled.addItem(new MiddleEarthItem("Elven Bow", 1, 90, ItemOrigin.LOTHLORIEN));
+            journaled.snapshot();
+            journaled.addItem(new MiddleEarthItem("Palantir", 1, 70, ItemOrigin.ISENGARD));
+        }
+        Files.move(previous, snapshot, StandardCopyOption.REPLACE_EXISTING);
+
+        // When
+        Throwable failure = catchThrowable(() -> new JournaledInventoryManager(directory).close());
+
+        // Then the records between the two snapshots are gone, which must not go unnoticed
+        assertThat(failure).isInstanceOf(IllegalStateException.class).hasMessageContaining("log is newer than its snapshot");
+    }
+
+    @Test
+    void aTornRecordAtTheEndOfTheLogIsDropped() throws Exception {
+        // Given
+        String beforeLastRecord;
+        try (JournaledInventoryManager journaled = new JournaledInventoryManager(directory)) {
+            journaled.addItem(new MiddleEarthItem("Sword", 3, 50, ItemOrigin.GONDOR));
+            journaled.sellItem("Sword", 1, true, DayOfWeek.FRIDAY);
+            beforeLastRecord = journaled.getInventoryReport(true, true, "name");
+            journaled.addItem(new MiddleEarthItem("Elven Bow", 1, 90, ItemOrigin.LOTHLORIEN));
+        }
+
+        // When
+        corruptLastWrittenByte(directory.resolve("inventory.log"));
+
+        // Then
+        try (JournaledInventoryManager recovered = new JournaledInventoryManager(directory)) {
+            assertThat(recovered.getInventoryReport(true, true, "name")).isEqualTo(beforeLastRecord);
+        }
+    }
+
+    private static void apply(Random random, JournaledInventoryManager journaled, IndexedInventoryManager expected) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        int quantity = 1 + random.nextInt(5);
+        switch (random.nextInt(10)) {
+            case 0, 1, 2, 3 -> {
+                int quality = random.nextInt(100);
+                ItemOrigin origin = ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)];
+                journaled.addItem(new MiddleEarthItem(name, quantity, quality, origin));
+                expected.addItem(new MiddleEarthItem(name, quantity, quality, origin));
+            }
+            case 4 -> {
+                journaled.removeItem(name, quantity);
+                expected.removeItem(name, quantity);
+            }
+            case 5 -> {
+                DayOfWeek day = DayOfWeek.values()[random.nextInt(7)];
+                ignoreWartimeRefusal(() -> journaled.sellItem(name, quantity, true, day));
+                ignoreWartimeRefusal(() -> expected.sellItem(name, quantity, true, day));
+            }
+            case 6 -> {
+                ignoreWartimeRefusal(() -> journaled.sellItem(name, quantity, false, "Caturday"));
+                ignoreWartimeRefusal(() -> expected.sellItem(name, quantity, false, "Caturday"));
+            }
+            case 7, 8 -> {
+                journaled.updateAllItems();
+                expected.updateAllItems();
+            }
+            default -> {
+                journaled.setWarTime(!journaled.isWarTime());
+                expected.setWarTime(!expected.isWarTime());
+            }
+        }
+    }
+
+    private static void assertSameInventory(JournaledInventoryManager recovered, IndexedInventoryManager expected) {
+        assertThat(describe(recovered.getAllItems())).isEqualTo(describe(expected.getAllItems()));
+        assertThat(recovered.isWarTime()).isEqualTo(expected.isWarTime());
+        assertThat(recovered.hasRing()).isEqualTo(expected.hasRing());
+        assertThat(recovered.getTotalInventoryValue()).isEqualTo(expected.getTotalInventoryValue());
+        assertThat(recovered.getInventoryReport(true, true, "price")).isEqualTo(expected.getInventoryReport(true, true, "price"));
+    }
+
+    private static void corruptLastWrittenByte(Path file) throws Exception {
+        try (RandomAccessFile log = new RandomAccessFile(file.toFile(), "rw")) {
+            long position = log.length();
+            int value;
+            do {
+                log.seek(--position);
+                value = log.read();
+            } while (value == 0);
+            log.seek(position);
+            log.write(value ^ 0xFF);
+        }
+    }
+
+    private static void ignoreWartimeRefusal(Runnable sale) {
+        try {
+            sale.run();
+        } catch (IllegalStateException e) {
+            // Selling Mordor items during wartime fails after the sale, on both sides
+        }
+    }
+
+    private static List<String> describe(List<MiddleEarthItem> items) {
+        return items.stream()
+                .map(item -> item.n + "|" + item.o + "|" + item.q + "|" + item.qual + "|" + item.p + "|" + item.m)
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package org.lotr.kata;
+
+// The historical MiddleEarthItem.getFinalPrice, kept as the reference for the precomputed price tables
+final class LegacyPricing {
+    private LegacyPricing() {
+        // Prevent instantiation
+    }
+
+    static int finalPrice(MiddleEarthItem item, boolean isHaggling, String dayOfWeek) {
+        int pr = 0;
+        if (isHaggling && !item.isRing) {
+            pr = (int) (item.p * 0.9);
+        } else if (isHaggling && item.isRing) {
+            pr = item.p;
+        } else {
+            pr = item.p;
+        }
+
+        if (dayOfWeek.equals("Sunday") || dayOfWeek.equals("Saturday")) {
+            pr = (int) (pr * 1.1);
+        }
+
+        if (item.isC) {
+            if (dayOfWeek.equals("Monday")) {
+                pr = (int) (pr * 0.5);
+            }
+        }
+
+        if (item.isMithril && (dayOfWeek.equals("Thursday") || dayOfWeek.equals("Friday"))) {
+            pr = (int) (pr * 1.15);
+        }
+
+        if (item.isGood && dayOfWeek.equals("Wednesday")) {
+            pr = (int) (pr * 0.95);
+        }
+
+        return pr;
+    }
+}
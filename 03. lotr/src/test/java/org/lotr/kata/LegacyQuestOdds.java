@@ -0,0 +1,68 @@
+package org.lotr.kata;
+
+import java.util.List;
+
+import static org.lotr.kata.Characters.*;
+
+// The historical QuestService.calculateBaseSuccessChance and applyModifiers, kept as the reference for QuestOdds
+final class LegacyQuestOdds {
+    private LegacyQuestOdds() {
+        // Prevent instantiation
+    }
+
+    static double successChance(String level, String characterType, QuestType questType, List<String> companionTypes,
+                                List<MiddleEarthItem> items, String weather, boolean warTime) {
+        double baseChance = 0.5;
+        baseChance += switch (level) {
+            case "Novice" -> -0.2;
+            case "Experienced" -> 0.1;
+            case "Veteran" -> 0.2;
+            case "Legendary" -> 0.3;
+            default -> 0;
+        };
+
+        if (questType == QuestType.DESTROY_RING) {
+            baseChance -= 0.3;
+        } else if (questType == QuestType.DEFEAT_ORCS) {
+            baseChance += 0.1;
+        } else if (questType == QuestType.FIND_ARTIFACT) {
+            baseChance -= 0.1;
+        }
+
+        baseChance += companionTypes.size() * 0.05;
+
+        for (MiddleEarthItem item : items) {
+            if (item.isRing) baseChance += 0.15;
+            if (item.isMithril) baseChance += 0.1;
+            if (item.isGood) baseChance += 0.05;
+            if (item.isC) baseChance -= 0.15;
+        }
+        baseChance = Math.clamp(baseChance, 0.1, 0.95);
+
+        if (CHARACTER_BONUSES.containsKey(characterType) && CHARACTER_BONUSES.get(characterType).containsKey(questType)) {
+            baseChance *= CHARACTER_BONUSES.get(characterType).get(questType);
+        }
+        if (companionTypes.contains(ELF) && companionTypes.contains(DWARF)) {
+            baseChance += 0.05;
+        }
+        if (companionTypes.contains(HOBBIT) && companionTypes.contains(WIZARD)) {
+            baseChance += 0.1;
+        }
+
+        if (weather.equals("Stormy")) {
+            baseChance -= 0.1;
+        } else if (weather.equals("Clear")) {
+            baseChance += 0.05;
+        }
+
+        if (warTime) {
+            if (questType == QuestType.DEFEAT_ORCS) {
+                baseChance -= 0.1;
+            } else if (questType == QuestType.DIPLOMATIC_MISSION) {
+                baseChance -= 0.2;
+            }
+        }
+
+        return Math.clamp(baseChance, 0.1, 0.95);
+    }
+}
@@ -0,0 +1,131 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MiddleEarthGatewayTest {
+    private QuestDatabase questDatabase;
+    private MiddleEarthManager manager;
+    private MiddleEarthGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        questDatabase = new QuestDatabase();
+        manager = new MiddleEarthManager(new InventoryManager(), questDatabase, new CharacterService());
+        manager.initializeTestScenario();
+        gateway = new MiddleEarthGateway(manager, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.close();
+    }
+
+    @Test
+    void questsCompleteWithTheirResult() {
+        // When
+        QuestResult result = gateway.attemptQuestWithCharacter("Gimli", QuestType.FIND_ARTIFACT, List.of("Legolas"), List.of("Dwarven Axe")).join();
+
+        // Then
+        assertThat(result.getCharacterName()).isEqualTo("Gimli");
+        assertThat(result.getCompanions()).containsExactly("Legolas");
+        assertThat(questDatabase.getQuestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void questsThatCannotStartFailWithTheReason() {
+        assertThatThrownBy(() -> gateway.attemptQuestWithCharacter("Gimli", QuestType.FIND_ARTIFACT, List.of(), List.of("Palantir")).join())
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Palantir is not in the inventory");
+        assertThatThrownBy(() -> gateway.attemptQuestWithCharacter("Gollum", QuestType.FIND_ARTIFACT, List.of(), List.of()).join())
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not available for quests");
+    }
+
+    @Test
+    void everyConcurrentSessionGetsItsAnswer() throws Exception {
+        // Given
+        List<CompletableFuture<QuestResult>> quests;
+
+        // When a thousand sessions, on virtual threads, send a quest at the same time
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            quests = IntStream.range(0, 1_000)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> gateway.attemptQuestWithCharacter("Aragorn", QuestType.DEFEAT_ORCS, List.of(), List.of()), sessions)
+                            .thenCompose(quest -> quest))
+                    .toList();
+            CompletableFuture.allOf(quests.toArray(CompletableFuture[]::new)).join();
+        }
+
+        // Then
+        assertThat(quests).allSatisfy(quest -> assertThat(quest.join().getCharacterName()).isEqualTo("Aragorn"));
+        assertThat(questDatabase.getQuestCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void publishedStateIncludesCompletedRequests() {
+        // When Gandalf, with 100 gold, tries to buy the Cursed Helmet
+        boolean bought = gateway.buyItemForCharacter("Gandalf", "Cursed Helmet", false).join();
+
+        // Then
+        if (bought) {
+            assertThat(gateway.getStateOfMiddleEarth()).doesNotContain("Gandalf: 100 gold");
+        } else {
+            assertThat(gateway.getStateOfMiddleEarth()).contains("Gandalf: 100 gold");
+        }
+    }
+
+    @Test
+    void sessionsRacingTheClosingAllGetAnAnswer() throws Exception {
+        for (int round = 0; round < 40; round++) {
+            // Given a gateway with room for a single request, so that senders wait for the writer
+            MiddleEarthGateway racing = new MiddleEarthGateway(manager, 1);
+            List<CompletableFuture<Boolean>> sent = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(8);
+            List<Thread> sessions = IntStream.range(0, 8)
+                    .mapToObj(i -> Thread.ofVirtual().start(() -> {
+                        started.countDown();
+                        try {
+                            for (int request = 0; request < 50; request++) {
+                                sent.add(racing.buyItemForCharacter("Gandalf", "Palantir", false));
+                            }
+                        } catch (IllegalStateException e) {
+                            // Sent after close
+                        }
+                    }))
+                    .toList();
+
+            // When
+            started.await();
+            racing.close();
+
+            // Then
+            for (Thread session : sessions) {
+                assertThat(session.join(Duration.ofSeconds(10))).as("session still waiting in round %d", round).isTrue();
+            }
+            assertThat(sent).allSatisfy(request -> assertThat(request).isDone());
+        }
+    }
+
+    @Test
+    void requestsAreRejectedOnceClosed() {
+        gateway.close();
+
+        assertThatThrownBy(() -> gateway.buyItemForCharacter("Gandalf", "Pipe Weed", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+    }
+}
@@ -0,0 +1,95 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MiddleEarthItemPricingTest {
+    private static final String[] DAY_NAMES = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+
+    @Test
+    void priceTablesMatchTheHistoricalComputationForEveryPriceFlagHagglingAndDay() {
+        List<String> mismatches = new ArrayList<>();
+        MiddleEarthItem item = new MiddleEarthItem("Anything", 1, 50, ItemOrigin.SHIRE);
+
+        for (int flags = 0; flags < 16; flags++) {
+            item.isRing = (flags & 1) != 0;
+            item.isC = (flags & 2) != 0;
+            item.isMithril = (flags & 4) != 0;
+            item.isGood = (flags & 8) != 0;
+
+            for (int price : prices()) {
+                item.p = price;
+                for (boolean haggling : new boolean[]{false, true}) {
+                    for (DayOfWeek day : DayOfWeek.values()) {
+                        int expected = LegacyPricing.finalPrice(item, haggling, DAY_NAMES[day.ordinal()]);
+                        if (item.getFinalPrice(haggling, day) != expected
+                                || item.getFinalPrice(haggling, DAY_NAMES[day.ordinal()]) != expected) {
+                            mismatches.add("flags=" + flags + " p=" + price + " haggling=" + haggling + " day=" + day);
+                        }
+                    }
+                }
+            }
+        }
+
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void unknownDaysOnlyApplyTheHaggling() {
+        MiddleEarthItem mithril = new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA);
+
+        assertThat(mithril.getFinalPrice(true, "Caturday")).isEqualTo(LegacyPricing.finalPrice(mithril, true, "Caturday"));
+        assertThat(mithril.getFinalPrice(false, "friday")).isEqualTo(mithril.p);
+    }
+
+    @Test
+    void tableFollowsPriceAndFlagChanges() {
+        MiddleEarthItem sword = new MiddleEarthItem("Gondorian Sword", 1, 85, ItemOrigin.GONDOR);
+        int peacePrice = sword.getFinalPrice(false, DayOfWeek.WEDNESDAY);
+
+        sword.p = (int) (sword.p * 1.5);
+        assertThat(sword.getFinalPrice(false, DayOfWeek.WEDNESDAY)).isNotEqualTo(peacePrice)
+                .isEqualTo(LegacyPricing.finalPrice(sword, false, "Wednesday"));
+
+        sword.isGood = false;
+        assertThat(sword.getFinalPrice(false, DayOfWeek.WEDNESDAY)).isEqualTo(sword.p);
+    }
+
+    @Test
+    void warTimePricesHaveATableOfTheirOwn() {
+        // Given
+        MiddleEarthItem sword = new MiddleEarthItem("Gondorian Sword", 1, 85, ItemOrigin.GONDOR);
+        int warPrice = WarPricing.warPrice(sword);
+        int[] peaceTable = sword.tableFor(sword.p);
+
+        // When
+        int[] warTable = sword.tableFor(warPrice);
+
+        // Then
+        assertThat(warTable).isNotSameAs(peaceTable);
+        assertThat(sword.tableFor(warPrice)).isSameAs(warTable);
+        assertThat(sword.tableFor(sword.p)).isSameAs(peaceTable);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (boolean haggling : new boolean[]{false, true}) {
+                MiddleEarthItem atWar = new MiddleEarthItem("Gondorian Sword", 1, 85, ItemOrigin.GONDOR);
+                atWar.p = warPrice;
+                assertThat(sword.getFinalPrice(warPrice, haggling, day))
+                        .isEqualTo(LegacyPricing.finalPrice(atWar, haggling, DAY_NAMES[day.ordinal()]));
+            }
+        }
+    }
+
+    private static List<Integer> prices() {
+        List<Integer> prices = new ArrayList<>();
+        for (int price = -1_000; price <= 50_000; price++) {
+            prices.add(price);
+        }
+        prices.addAll(List.of(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE, Integer.MIN_VALUE + 1, 1 << 30));
+        return prices;
+    }
+}
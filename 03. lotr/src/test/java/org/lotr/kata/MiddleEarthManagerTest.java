@@ -0,0 +1,89 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MiddleEarthManagerTest {
+    @Test
+    void simulatingDaysEndsInTheSameStateAsDayAfterDay() {
+        for (int days : new int[]{0, 1, 5, 40, 1_000}) {
+            // Given
+            InventoryManager dailyInventory = new InventoryManager();
+            InventoryManager simulatedInventory = new InventoryManager();
+            MiddleEarthManager daily = newManager(dailyInventory);
+            MiddleEarthManager simulated = newManager(simulatedInventory);
+
+            // When
+            RandomGenerator random = MiddleEarthManager.simulationRandom(42);
+            for (int day = 0; day < days; day++) {
+                daily.processMiddleEarthDay(random);
+            }
+            simulated.simulateDays(days, 42);
+
+            // Then
+            assertThat(simulated.getStateOfMiddleEarth()).as("after %d days", days).isEqualTo(daily.getStateOfMiddleEarth());
+            assertThat(simulatedInventory.isWarTime()).as("after %d days", days).isEqualTo(dailyInventory.isWarTime());
+            assertThat(simulatedInventory.getInventoryReport(true, true, "name"))
+                    .as("after %d days", days)
+                    .isEqualTo(dailyInventory.getInventoryReport(true, true, "name"));
+        }
+    }
+
+    @Test
+    void simulationsWithTheSameSeedAgree() {
+        // Given
+        MiddleEarthManager first = newManager(new InventoryManager());
+        MiddleEarthManager second = newManager(new InventoryManager());
+
+        // When
+        first.simulateDays(365, 7);
+        second.simulateDays(365, 7);
+
+        // Then
+        assertThat(second.getStateOfMiddleEarth()).isEqualTo(first.getStateOfMiddleEarth());
+    }
+
+    @Test
+    void stateOfMiddleEarthDoesNotGoThroughTheInventory() {
+        // Given
+        InventoryManager inventory = new InventoryManager() {
+            @Override
+            public List<MiddleEarthItem> getAllItems() {
+                throw new AssertionError("The state must not list the items");
+            }
+
+            @Override
+            public void writeInventoryReport(Writer out, boolean includeRings, boolean includeQualityDetails, String sortBy, int limit) {
+                throw new AssertionError("The state must not write the inventory report");
+            }
+        };
+        MiddleEarthManager manager = newManager(inventory);
+
+        // When
+        String state = manager.getStateOfMiddleEarth();
+
+        // Then
+        assertThat(state).contains("INVENTORY SUMMARY:\nINVENTORY REPORT\n\nQUEST SUMMARY:\nQUEST REPORT\n\nCHARACTER GOLD:\n");
+        assertThat(state).contains("One Ring Status: IN INVENTORY");
+    }
+
+    @Test
+    void daysCannotGoBack() {
+        MiddleEarthManager manager = newManager(new InventoryManager());
+
+        assertThatThrownBy(() -> manager.simulateDays(-1, 42))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MiddleEarthManager newManager(InventoryManager inventory) {
+        MiddleEarthManager manager = new MiddleEarthManager(inventory, new QuestDatabase(), new CharacterService());
+        manager.initializeTestScenario();
+        return manager;
+    }
+}
@@ -0,0 +1,56 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Quests per second against the number of shards
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=MiddleEarthRealmsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiddleEarthRealmsBenchmark {
+    private static final int REALMS = 64;
+    private static final int QUESTS_PER_REALM = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private final List<QuestRequest> quests = Collections.nCopies(QUESTS_PER_REALM,
+            new QuestRequest("Aragorn", QuestType.DEFEAT_ORCS, List.of(), List.of()));
+    private MiddleEarthRealms realms;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() {
+        // Failed quests are printed: keep the console lock out of the measurement
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        realms = new MiddleEarthRealms(shards, 256);
+    }
+
+    @TearDown
+    public void tearDown() {
+        realms.close();
+        System.setOut(out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REALMS * QUESTS_PER_REALM)
+    public void quests() {
+        List<CompletableFuture<List<Boolean>>> outcomes = new ArrayList<>(REALMS);
+        for (int realm = 0; realm < REALMS; realm++) {
+            outcomes.add(realms.submit("Realm " + realm, manager -> manager.attemptQuests(quests)));
+        }
+        outcomes.forEach(CompletableFuture::join);
+    }
+}
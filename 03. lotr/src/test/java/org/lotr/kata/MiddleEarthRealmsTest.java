@@ -0,0 +1,90 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MiddleEarthRealmsTest {
+    private MiddleEarthRealms realms;
+
+    @BeforeEach
+    void setUp() {
+        realms = new MiddleEarthRealms(4, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        realms.close();
+    }
+
+    @Test
+    void realmsDoNotShareTheirInventory() {
+        // Given
+        realms.submit("Gondor", manager -> {
+            manager.addItemToInventory("The One Ring", 1, 100, ItemOrigin.MORDOR);
+            return null;
+        });
+
+        // When
+        String gondor = realms.submit("Gondor", MiddleEarthManager::getStateOfMiddleEarth).join();
+        String rohan = realms.submit("Rohan", MiddleEarthManager::getStateOfMiddleEarth).join();
+
+        // Then
+        assertThat(gondor).contains("One Ring Status: IN INVENTORY");
+        assertThat(rohan).contains("One Ring Status: MISSING");
+    }
+
+    @Test
+    void workOnARealmRunsInOrderOnASingleThread() {
+        // Given
+        List<Integer> order = new ArrayList<>();
+        Set<Thread> threads = new HashSet<>();
+
+        // When
+        List<CompletableFuture<Boolean>> work = IntStream.range(0, 1_000)
+                .mapToObj(i -> realms.submit("Shire", manager -> threads.add(Thread.currentThread()) & order.add(i)))
+                .toList();
+        work.forEach(CompletableFuture::join);
+
+        // Then
+        assertThat(order).containsExactlyElementsOf(IntStream.range(0, 1_000).boxed().toList());
+        assertThat(threads).hasSize(1);
+    }
+
+    @Test
+    void failuresAreReportedThroughTheFuture() {
+        // When
+        CompletableFuture<Object> failed = realms.submit("Mordor", manager -> {
+            throw new IllegalStateException("Sauron says no");
+        });
+
+        // Then
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class).hasMessageContaining("Sauron says no");
+        assertThat(realms.submit("Mordor", manager -> "still running").join()).isEqualTo("still running");
+    }
+
+    @Test
+    void workSentBeforeClosingIsRunAndLaterWorkIsRejected() {
+        // Given
+        CompletableFuture<String> sent = realms.submit("Rivendell", manager -> "done");
+
+        // When
+        realms.close();
+
+        // Then
+        assertThat(sent).isCompletedWithValue("done");
+        assertThatThrownBy(() -> realms.submit("Rivendell", manager -> "too late"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+    }
+}
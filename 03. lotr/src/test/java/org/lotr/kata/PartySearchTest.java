@@ -0,0 +1,139 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PartySearchTest {
+    private static final List<String> FELLOWSHIP = List.of("Frodo", "Gandalf", "Aragorn", "Legolas", "Gimli", "Boromir", "Sam", "Merry", "Pippin");
+
+    private IndexedInventoryManager inventory;
+    private QuestDatabase questDatabase;
+    private CharacterService characterService;
+    private QuestService questService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (Class<?> singleton : List.of(QuestDatabase.class, CharacterService.class)) {
+            Field instance = singleton.getDeclaredField("instance");
+            instance.setAccessible(true);
+            instance.set(null, null);
+        }
+        questDatabase = QuestDatabase.getInstance();
+        characterService = CharacterService.getInstance();
+        inventory = new IndexedInventoryManager();
+        inventory.addItem(new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR));
+        inventory.addItem(new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA));
+        inventory.addItem(new MiddleEarthItem("Anduril", 1, 90, ItemOrigin.GONDOR));
+        inventory.addItem(new MiddleEarthItem("cursed Mithril Blade", 1, 95, ItemOrigin.GONDOR));
+        inventory.addItem(new MiddleEarthItem("Elven Cloak", 1, 70, ItemOrigin.LOTHLORIEN));
+        questService = new QuestService(inventory, questDatabase, characterService);
+    }
+
+    @Test
+    void findsTheBestPartiesOfAnExhaustiveSearch() {
+        for (PartySearch.Objective objective : PartySearch.Objective.values()) {
+            for (QuestType questType : List.of(QuestType.FIND_ARTIFACT, QuestType.DESTROY_RING, QuestType.DEFEAT_ORCS)) {
+                // Given
+                ToDoubleFunction<QuestScenario> score = scenario -> score(objective, scenario);
+                double best = allParties("Gimli", questType).stream().mapToDouble(score).max().orElseThrow();
+
+                // When
+                PartySearchResult result = new PartySearch(inventory, questDatabase, characterService)
+                        .search("Gimli", questType, FELLOWSHIP, objective, 3, Duration.ofSeconds(30));
+
+                // Then
+                assertThat(result.complete()).isTrue();
+                assertThat(result.parties()).hasSize(3).doesNotHaveDuplicates();
+                assertThat(score.applyAsDouble(result.parties().getFirst().scenario())).isCloseTo(best, within(1e-9));
+                assertThat(result.parties()).extracting(party -> score.applyAsDouble(party.scenario())).isSortedAccordingTo(Comparator.reverseOrder());
+                assertThat(result.parties()).allSatisfy(party -> assertThat(party.successChance()).isEqualTo(chanceOf(party.scenario())));
+            }
+        }
+    }
+
+    @Test
+    void ringQuestsAlwaysCarryARingAndCanBeStarted() {
+        PartySearchResult result = new PartySearch(inventory, questDatabase, characterService)
+                .search("Frodo", QuestType.DESTROY_RING, FELLOWSHIP, PartySearch.Objective.SUCCESS_CHANCE, 5, Duration.ofSeconds(30));
+
+        assertThat(result.parties()).allSatisfy(party -> assertThat(party.scenario().items()).anyMatch(item -> item.isRing));
+        QuestScenario best = result.parties().getFirst().scenario();
+        assertThat(questService.startQuest(best.characterName(), best.questType(), best.companions(), best.items())).isNotNull();
+    }
+
+    @Test
+    void theSamePartiesAreFoundWhateverTheThreads() {
+        // Given many parties tied on score and size
+        List<QuestParty> alone = searchOn(new ForkJoinPool(1));
+
+        for (int run = 0; run < 20; run++) {
+            // When
+            List<QuestParty> together = searchOn(new ForkJoinPool(4));
+
+            // Then
+            assertThat(together).as("run %d", run).isEqualTo(alone);
+        }
+    }
+
+    @Test
+    void stopsWhenTheTimeBudgetIsSpent() {
+        PartySearchResult result = new PartySearch(inventory, questDatabase, characterService)
+                .search("Aragorn", QuestType.DEFEAT_ORCS, FELLOWSHIP, PartySearch.Objective.EXPECTED_REWARD, 10, Duration.ZERO);
+
+        assertThat(result.complete()).isFalse();
+    }
+
+    private List<QuestParty> searchOn(ForkJoinPool pool) {
+        try (pool) {
+            return new PartySearch(inventory, questDatabase, characterService, pool)
+                    .search("Aragorn", QuestType.DEFEAT_ORCS, FELLOWSHIP, PartySearch.Objective.SUCCESS_CHANCE, 20, Duration.ofSeconds(30))
+                    .parties();
+        }
+    }
+
+    private double score(PartySearch.Objective objective, QuestScenario scenario) {
+        double chance = chanceOf(scenario);
+        return objective == PartySearch.Objective.SUCCESS_CHANCE
+                ? chance
+                : chance * QuestService.calculateReward(scenario.questType(), characterService.getCharacterType(scenario.characterName()),
+                scenario.companions().size(), scenario.items());
+    }
+
+    private double chanceOf(QuestScenario scenario) {
+        return questService.getSuccessChance(scenario.characterName(), scenario.questType(), scenario.companions(), scenario.items());
+    }
+
+    private List<QuestScenario> allParties(String leader, QuestType questType) {
+        List<String> candidates = FELLOWSHIP.stream().filter(name -> !name.equals(leader)).toList();
+        List<MiddleEarthItem> items = inventory.getAllItems();
+        List<QuestScenario> parties = new ArrayList<>();
+        for (int party = 0; party < 1 << candidates.size(); party++) {
+            for (int bag = 0; bag < 1 << items.size(); bag++) {
+                List<MiddleEarthItem> carried = subset(items, bag);
+                if (questType != QuestType.DESTROY_RING || carried.stream().anyMatch(item -> item.isRing)) {
+                    parties.add(new QuestScenario(leader, questType, subset(candidates, party), carried));
+                }
+            }
+        }
+        return parties;
+    }
+
+    private static <T> List<T> subset(List<T> values, int bits) {
+        List<T> subset = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            if ((bits & 1 << i) != 0) subset.add(values.get(i));
+        }
+        return subset;
+    }
+}
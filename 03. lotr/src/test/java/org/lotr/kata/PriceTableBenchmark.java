@@ -0,0 +1,45 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=PriceTableBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceTableBenchmark {
+    private static final String[] DAY_NAMES = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    private final MiddleEarthItem[] items = {
+            new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA),
+            new MiddleEarthItem("Gondorian Sword", 1, 85, ItemOrigin.GONDOR),
+            new MiddleEarthItem("cursed Helmet", 1, 70, ItemOrigin.MORDOR),
+            new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR)
+    };
+
+    private int next;
+
+    @Benchmark
+    public int stringDayComputation() {
+        int i = next++;
+        return LegacyPricing.finalPrice(items[i & 3], (i & 4) != 0, DAY_NAMES[i % 7]);
+    }
+
+    @Benchmark
+    public int stringDayTable() {
+        int i = next++;
+        return items[i & 3].getFinalPrice((i & 4) != 0, DAY_NAMES[i % 7]);
+    }
+
+    @Benchmark
+    public int dayOfWeekTable() {
+        int i = next++;
+        return items[i & 3].getFinalPrice((i & 4) != 0, DAYS[i % 7]);
+    }
+}
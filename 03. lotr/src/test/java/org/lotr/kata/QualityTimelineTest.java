@@ -0,0 +1,94 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QualityTimelineTest {
+    @Test
+    void jumpingAheadGivesTheSameItemsAsDayAfterDay() {
+        for (int days : new int[]{0, 1, 2, 7, 63, 64, 65, 200, 4_100, 20_000}) {
+            List<MiddleEarthItem> daily = everyKindOfItem();
+            List<MiddleEarthItem> jumped = everyKindOfItem();
+
+            for (int day = 0; day < days; day++) {
+                new DailyTick().apply(daily);
+            }
+            List<MiddleEarthItem> degraded = new QualityTimeline(jumped).advance(days);
+            jumped.removeAll(degraded);
+
+            assertThat(describe(jumped)).as("after %d days", days).isEqualTo(describe(daily));
+        }
+    }
+
+    @Test
+    void successiveJumpsAddUp() {
+        List<MiddleEarthItem> daily = everyKindOfItem();
+        List<MiddleEarthItem> jumped = everyKindOfItem();
+        QualityTimeline timeline = new QualityTimeline(jumped);
+
+        for (int days : new int[]{3, 1, 60, 0, 500}) {
+            for (int day = 0; day < days; day++) {
+                new DailyTick().apply(daily);
+            }
+            jumped.removeAll(timeline.advance(days));
+
+            assertThat(describe(jumped)).isEqualTo(describe(daily));
+        }
+    }
+
+    @Test
+    void inventoryManagerAdvancesLikeItsDailyUpdates() throws Exception {
+        InventoryManager daily = new InventoryManager();
+        InventoryManager jumped = new InventoryManager();
+        for (InventoryManager inventory : List.of(daily, jumped)) {
+            inventory.addItem(new MiddleEarthItem("Orc Blade", 10, 40, ItemOrigin.MORDOR));
+            inventory.addItem(new MiddleEarthItem("Gondorian Sword", 5, 85, ItemOrigin.GONDOR));
+            inventory.addItem(new MiddleEarthItem("Mithril Shirt", 2, 20, ItemOrigin.MORIA));
+            inventory.addItem(new MiddleEarthItem("Pipe Weed", 20, 30, ItemOrigin.SHIRE));
+            inventory.addItem(new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR));
+        }
+
+        for (int day = 0; day < 35; day++) {
+            daily.updateAllItems();
+        }
+        jumped.advanceDays(35);
+
+        assertThat(describe(jumped.getAllItems())).isEqualTo(describe(daily.getAllItems()));
+    }
+
+    // Every combination of flags, on both sides of every threshold, with and without magic
+    private static List<MiddleEarthItem> everyKindOfItem() {
+        List<MiddleEarthItem> items = new ArrayList<>();
+        for (int flags = 0; flags < 32; flags++) {
+            for (ItemOrigin origin : List.of(ItemOrigin.MORDOR, ItemOrigin.GONDOR)) {
+                for (int quality = -15; quality <= 130; quality += 1) {
+                    items.add(item(flags, origin, quality, quality % 7 == 0 ? 100 : 0));
+                }
+                for (int quality : new int[]{-10_000, 1_000, 9_999}) {
+                    items.add(item(flags, origin, quality, 0));
+                }
+            }
+        }
+        return items;
+    }
+
+    private static MiddleEarthItem item(int flags, ItemOrigin origin, int quality, int magic) {
+        MiddleEarthItem item = new MiddleEarthItem("Item", 1, 0, origin);
+        item.isRing = (flags & 1) != 0;
+        item.isE = (flags & 2) != 0;
+        item.isGood = (flags & 4) != 0;
+        item.isMithril = (flags & 8) != 0;
+        item.isC = (flags & 16) != 0;
+        item.qual = quality;
+        item.m = magic;
+        return item;
+    }
+
+    private static List<String> describe(List<MiddleEarthItem> items) {
+        return items.stream().map(item -> item.n + "/" + item.o + "/" + item.qual + "/" + item.m).toList();
+    }
+}
@@ -0,0 +1,162 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestBatchTest {
+    private static final List<String> HEROES = List.of("Frodo", "Gandalf", "Aragorn", "Legolas", "Gimli");
+    private static final List<String> ITEM_NAMES = List.of("The One Ring", "Mithril Shirt", "Elven Cloak", "Anduril", "Lembas");
+
+    @Test
+    void batchEndsLikeQuestsRunOneByOne() {
+        // Given
+        List<QuestRequest> requests = randomRequests(3 * QuestBatch.GROUP_SIZE + 17);
+        World alone = new World();
+        World batched = new World();
+
+        // When
+        List<Boolean> aloneOutcomes = requests.stream().map(alone::attemptAlone).toList();
+        List<Boolean> batchedOutcomes = batched.attemptBatched(requests);
+
+        // Then
+        assertThat(batchedOutcomes).isEqualTo(aloneOutcomes).contains(true, false);
+        assertThat(batched.saved).isEqualTo(alone.saved);
+        assertThat(batched.inventory.getAllItems()).extracting(item -> item.n + " x" + item.q)
+                .containsExactlyElementsOf(alone.inventory.getAllItems().stream().map(item -> item.n + " x" + item.q).toList());
+    }
+
+    @Test
+    void groupsAreOnlyWrittenWhenFull() {
+        // Given
+        World world = new World();
+        QuestBatch batch = new QuestBatch(world.inventory, world.questDatabase);
+        MiddleEarthItem shirt = batch.find("Mithril Shirt");
+
+        // When
+        batch.consume(shirt);
+        batch.save(new QuestResult("Frodo", QuestType.FIND_ARTIFACT, true, 100, List.of()));
+        batch.commitIfFull();
+
+        // Then the batch sees the next shirt, the inventory still has the first one until the commit
+        assertThat(batch.find("Mithril Shirt")).isNotSameAs(shirt);
+        assertThat(world.inventory.contains(shirt)).isTrue();
+        assertThat(world.saved).isEmpty();
+
+        batch.commit();
+        assertThat(world.inventory.contains(shirt)).isFalse();
+        assertThat(world.saved).hasSize(1);
+    }
+
+    private static List<QuestRequest> randomRequests(int count) {
+        Random random = new Random(11);
+        List<QuestRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> companions = new ArrayList<>(HEROES.subList(0, random.nextInt(3)));
+            List<String> items = new ArrayList<>();
+            for (int item = random.nextInt(3); item > 0; item--) {
+                items.add(ITEM_NAMES.get(random.nextInt(ITEM_NAMES.size())));
+            }
+            QuestType questType = QuestType.values()[random.nextInt(QuestType.values().length)];
+            requests.add(new QuestRequest(HEROES.get(3 + random.nextInt(2)), questType, companions, items));
+        }
+        return requests;
+    }
+
+    // Same starting point and same dice for both ways of running the quests
+    private static class World {
+        final IndexedInventoryManager inventory = new IndexedInventoryManager();
+        final List<String> saved = new ArrayList<>();
+        final QuestDatabaseInterface questDatabase = new QuestDatabaseInterface() {
+            public String getCurrentWeather() {
+                return "Rainy";
+            }
+
+            public void saveQuestResult(QuestResult result) {
+                saved.add(result.getCharacterName() + " " + result.getQuestType() + " " + result.isSuccess() + " " + result.getRewardAmount());
+            }
+
+            public void setCurrentWeather(String weather) {
+            }
+
+            public String generateQuestReport() {
+                return "";
+            }
+        };
+        final QuestService questService = new QuestService(inventory, questDatabase, new Fellowship(), new Random(5));
+
+        World() {
+            inventory.addItem(new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR));
+            for (int i = 0; i < 200; i++) {
+                inventory.addItem(new MiddleEarthItem("Mithril Shirt", 1, 90 + i % 5, ItemOrigin.MORIA));
+                inventory.addItem(new MiddleEarthItem("Elven Cloak", 2, 70 + i % 7, ItemOrigin.LOTHLORIEN));
+            }
+            inventory.addItem(new MiddleEarthItem("Anduril", 3, 90, ItemOrigin.GONDOR));
+        }
+
+        // As MiddleEarthManager.attemptQuestWithCharacter
+        boolean attemptAlone(QuestRequest request) {
+            List<MiddleEarthItem> items = new ArrayList<>();
+            for (String name : request.itemNames()) {
+                MiddleEarthItem item = inventory.findItem(name).orElse(null);
+                if (item == null) return false;
+                items.add(item);
+            }
+            try {
+                return questService.startQuest(request.characterName(), request.questType(), request.companions(), items).isSuccess();
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        }
+
+        // As MiddleEarthManager.attemptQuests
+        List<Boolean> attemptBatched(List<QuestRequest> requests) {
+            QuestBatch batch = new QuestBatch(inventory, questDatabase);
+            List<Boolean> outcomes = new ArrayList<>();
+            for (QuestRequest request : requests) {
+                List<MiddleEarthItem> items = new ArrayList<>();
+                for (String name : request.itemNames()) {
+                    items.add(batch.find(name));
+                }
+                boolean success = false;
+                if (!items.contains(null)) {
+                    try {
+                        success = questService.startQuest(request.characterName(), request.questType(), request.companions(), items,
+                                batch::consume, batch::save).isSuccess();
+                    } catch (IllegalStateException e) {
+                        success = false;
+                    }
+                }
+                outcomes.add(success);
+                batch.commitIfFull();
+            }
+            batch.commit();
+            return outcomes;
+        }
+    }
+
+    // Nobody gets promoted, so that both runs see the same levels
+    private static class Fellowship implements CharacterServiceInterface {
+        private final Map<String, String> types = Map.of("Frodo", "Hobbit", "Gandalf", "Wizard", "Aragorn", "Human", "Legolas", "Elf", "Gimli", "Dwarf");
+
+        public boolean isCharacterAvailable(String name) {
+            return types.containsKey(name);
+        }
+
+        public String getCharacterType(String name) {
+            return types.get(name);
+        }
+
+        public String getCharacterLevel(String name) {
+            return "Veteran";
+        }
+
+        public void completeQuest(String name, boolean success) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestDatabaseTest {
+    private QuestDatabase questDatabase;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instance = QuestDatabase.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+        questDatabase = QuestDatabase.getInstance();
+    }
+
+    @Test
+    void reportsCountersKeptUpToDateBySaves() {
+        // Given
+        questDatabase.saveQuestResult(new QuestResult("Frodo", QuestType.DESTROY_RING, true, 1000, List.of("Sam")));
+        questDatabase.saveQuestResult(new QuestResult("Aragorn", QuestType.DEFEAT_ORCS, false, 0, List.of()));
+        questDatabase.saveQuestResult(new QuestResult("Legolas", QuestType.DEFEAT_ORCS, true, 120, List.of("Gimli")));
+
+        // When
+        String report = questDatabase.generateQuestReport();
+
+        // Then
+        assertThat(report).isEqualTo("""
+                QUEST REPORT
+                ------------
+                Total Quests: 3
+                Successful: 2
+                Failed: 1
+                Total Rewards: 1120 gold coins
+
+                BY QUEST TYPE:
+                DESTROY_RING: 1 (1 successful)
+                DEFEAT_ORCS: 2 (1 successful)
+                ESCORT_HOBBIT: 0 (0 successful)
+                FIND_ARTIFACT: 0 (0 successful)
+                DIPLOMATIC_MISSION: 0 (0 successful)
+                """);
+    }
+
+    @Test
+    void charactersSeeTheQuestsTheyLedOrJoined() {
+        // Given
+        questDatabase.saveQuestResult(new QuestResult("Frodo", QuestType.DESTROY_RING, true, 1000, List.of("Sam", "Gandalf")));
+        questDatabase.saveQuestResult(new QuestResult("Aragorn", QuestType.DEFEAT_ORCS, false, 0, List.of("Frodo")));
+
+        // When
+        List<QuestResult> frodoQuests = questDatabase.getQuestsByCharacter("Frodo");
+        questDatabase.saveQuestResult(new QuestResult("Sam", QuestType.ESCORT_HOBBIT, true, 50, List.of("Frodo")));
+
+        // Then
+        assertThat(frodoQuests).extracting(QuestResult::getCharacterName).containsExactly("Frodo", "Aragorn", "Sam");
+        assertThat(frodoQuests.getFirst().getCompanions()).containsExactly("Sam", "Gandalf");
+        assertThat(frodoQuests.getFirst().getRewardAmount()).isEqualTo(1000);
+        assertThat(questDatabase.getQuestsByCharacter("Gandalf")).extracting(QuestResult::getQuestType).containsExactly(QuestType.DESTROY_RING);
+        assertThat(questDatabase.getQuestsByCharacter("Sauron")).isEmpty();
+        assertThat(questDatabase.getFailedQuests()).extracting(QuestResult::getCharacterName).containsExactly("Aragorn");
+    }
+
+    @Test
+    void countersMatchAFullScanOfTheStoredQuests() {
+        Random random = new Random(23);
+        for (int i = 0; i < 10_000; i++) {
+            QuestType type = QuestType.values()[random.nextInt(QuestType.values().length)];
+            boolean success = random.nextBoolean();
+            questDatabase.saveQuestResult(new QuestResult("Frodo", type, success, success ? random.nextInt(2_000) : 0, List.of()));
+        }
+
+        assertThat(questDatabase.getSuccessfulQuestCount()).isEqualTo(questDatabase.getSuccessfulQuests().size());
+        assertThat(questDatabase.getFailedQuestCount()).isEqualTo(questDatabase.getFailedQuests().size());
+        assertThat(questDatabase.getTotalRewardsEarned())
+                .isEqualTo(questDatabase.getSuccessfulQuests().stream().mapToInt(QuestResult::getRewardAmount).sum());
+        for (QuestType type : QuestType.values()) {
+            List<QuestResult> quests = questDatabase.getQuestsByType(type);
+            assertThat(questDatabase.getQuestCount(type)).isEqualTo(quests.size());
+            assertThat(questDatabase.getSuccessfulQuestCount(type)).isEqualTo(quests.stream().filter(QuestResult::isSuccess).count());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.lotr.kata;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Heap used by stored quests, in the historical object layout or in the QuestLog columns. One layout per JVM run:
+// java -Xmx6g -cp target/classes:target/test-classes org.lotr.kata.QuestLogFootprint columnar 50000000
+public class QuestLogFootprint {
+    private static final String[] CHARACTERS = {"Frodo", "Gandalf", "Aragorn", "Legolas", "Gimli", "Boromir", "Sam", "Merry", "Pippin"};
+
+    public static void main(String[] args) {
+        String layout = args.length > 0 ? args[0] : "columnar";
+        int quests = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        long before = usedHeap();
+        Object store = layout.equals("legacy") ? storeAsObjects(quests) : storeInColumns(quests);
+        long after = usedHeap();
+
+        System.out.printf("%s: %,d quests, %,d MB, %.1f bytes per quest%n", layout, quests,
+                (after - before) >> 20, (double) (after - before) / quests);
+        // Keeps the store reachable until it was measured
+        Reference.reachabilityFence(store);
+    }
+
+    private static Object storeAsObjects(int quests) {
+        List<QuestResult> questResults = new ArrayList<>();
+        Map<String, List<QuestResult>> questsByCharacter = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < quests; i++) {
+            QuestResult result = randomQuest(random);
+            questResults.add(result);
+            questsByCharacter.computeIfAbsent(result.getCharacterName(), name -> new ArrayList<>()).add(result);
+            for (String companion : result.getCompanions()) {
+                questsByCharacter.computeIfAbsent(companion, name -> new ArrayList<>()).add(result);
+            }
+        }
+        return List.of(questResults, questsByCharacter);
+    }
+
+    private static Object storeInColumns(int quests) {
+        QuestLog log = new QuestLog();
+        Random random = new Random(1);
+        for (int i = 0; i < quests; i++) {
+            log.append(randomQuest(random));
+        }
+        return log;
+    }
+
+    // Up to three companions, in a list of their own like the ones built by the callers of the quest service
+    private static QuestResult randomQuest(Random random) {
+        List<String> companions = new ArrayList<>(3);
+        for (int companion = random.nextInt(4); companion > 0; companion--) {
+            companions.add(CHARACTERS[random.nextInt(CHARACTERS.length)]);
+        }
+        boolean success = random.nextBoolean();
+        return new QuestResult(CHARACTERS[random.nextInt(CHARACTERS.length)],
+                QuestType.values()[random.nextInt(QuestType.values().length)], success, success ? random.nextInt(1_000) : 0,
+                companions);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,42 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.lotr.kata.Characters.*;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=QuestOddsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestOddsBenchmark {
+    private static final String[] LEVELS = {"Novice", "Experienced", "Veteran", "Legendary"};
+    private static final String[] TYPES = {HOBBIT, HUMAN, DWARF, ELF, WIZARD};
+    private static final QuestType[] QUEST_TYPES = QuestType.values();
+    private static final List<String> COMPANIONS = List.of(ELF, DWARF, HOBBIT);
+
+    private final List<MiddleEarthItem> items = List.of(
+            new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR),
+            new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA));
+    private final QuestOdds odds = new QuestOdds("Clear", true);
+    private final int companionTypes = QuestOdds.ELF_COMPANION | QuestOdds.DWARF_COMPANION | QuestOdds.HOBBIT_COMPANION;
+
+    private int next;
+
+    @Benchmark
+    public double modifierPipeline() {
+        int i = next++;
+        return LegacyQuestOdds.successChance(LEVELS[i & 3], TYPES[i % 5], QUEST_TYPES[(i >> 2) % 5], COMPANIONS, items, "Clear", true);
+    }
+
+    @Benchmark
+    public double precomputedTables() {
+        int i = next++;
+        return odds.successChance(i & 3, i % 5, QUEST_TYPES[(i >> 2) % 5], 3, companionTypes, items);
+    }
+}
@@ -0,0 +1,85 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.lotr.kata.Characters.*;
+
+class QuestOddsTest {
+    private static final List<String> LEVELS = List.of("Novice", "Experienced", "Veteran", "Legendary", "Unknown");
+    private static final List<String> TYPES = List.of(HOBBIT, HUMAN, DWARF, ELF, WIZARD, "Ent");
+    private static final List<MiddleEarthItem> ITEMS = List.of(
+            new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR),
+            new MiddleEarthItem("Mithril Shirt", 1, 90, ItemOrigin.MORIA),
+            new MiddleEarthItem("Anduril", 1, 90, ItemOrigin.GONDOR),
+            new MiddleEarthItem("cursed Ring", 1, 50, ItemOrigin.MORDOR),
+            new MiddleEarthItem("cursed Mithril Blade", 1, 95, ItemOrigin.GONDOR));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (Class<?> singleton : List.of(QuestDatabase.class, CharacterService.class)) {
+            Field instance = singleton.getDeclaredField("instance");
+            instance.setAccessible(true);
+            instance.set(null, null);
+        }
+    }
+
+    @Test
+    void tablesGiveExactlyTheHistoricalChances() {
+        for (String weather : List.of("Clear", "Stormy", "Rainy", "Foggy")) {
+            for (boolean warTime : new boolean[]{false, true}) {
+                QuestOdds odds = new QuestOdds(weather, warTime);
+                for (String level : LEVELS) {
+                    for (String type : TYPES) {
+                        for (QuestType questType : QuestType.values()) {
+                            for (int party = 0; party < 1 << 5; party++) {
+                                List<String> companionTypes = subset(TYPES.subList(0, 5), party);
+                                int mask = companionTypes.stream().mapToInt(QuestOdds::companionType).reduce(0, (a, b) -> a | b);
+                                for (int bag = 0; bag < 1 << ITEMS.size(); bag++) {
+                                    List<MiddleEarthItem> items = subset(ITEMS, bag);
+
+                                    assertThat(odds.successChance(QuestOdds.levelOf(level), QuestOdds.typeOf(type), questType,
+                                            companionTypes.size(), mask, items))
+                                            .isEqualTo(LegacyQuestOdds.successChance(level, type, questType, companionTypes, items, weather, warTime));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void questServiceGivesChancesWithoutSideEffects() {
+        // Given
+        QuestDatabase questDatabase = QuestDatabase.getInstance();
+        CharacterService characterService = CharacterService.getInstance();
+        IndexedInventoryManager inventory = new IndexedInventoryManager();
+        inventory.setWarTime(true);
+        questDatabase.setCurrentWeather("Stormy");
+        QuestService questService = new QuestService(inventory, questDatabase, characterService);
+
+        // When
+        double chance = questService.getSuccessChance("Gimli", QuestType.FIND_ARTIFACT, List.of("Legolas", "Frodo", "Gandalf"), List.of(ITEMS.get(1)));
+
+        // Then
+        assertThat(chance).isEqualTo(LegacyQuestOdds.successChance("Veteran", DWARF, QuestType.FIND_ARTIFACT,
+                List.of(ELF, HOBBIT, WIZARD), List.of(ITEMS.get(1)), "Stormy", true));
+        assertThat(questDatabase.getQuestCount()).isZero();
+        assertThat(characterService.getCharacterLevel("Gimli")).isEqualTo("Veteran");
+    }
+
+    private static <T> List<T> subset(List<T> values, int bits) {
+        List<T> subset = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            if ((bits & 1 << i) != 0) subset.add(values.get(i));
+        }
+        return subset;
+    }
+}
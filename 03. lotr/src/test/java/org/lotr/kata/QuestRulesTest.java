@@ -0,0 +1,159 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuestRulesTest {
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        QuestRules.use(QuestRules.DEFAULT);
+    }
+
+    @Test
+    void defaultRulesAreTheCharacterBonuses() {
+        for (CharacterType type : CharacterType.values()) {
+            for (QuestType quest : QuestType.values()) {
+                double expected = type == CharacterType.OTHER
+                        ? 1.0
+                        : Characters.CHARACTER_BONUSES.getOrDefault(type.getLabel(), Map.of()).getOrDefault(quest, 1.0);
+                assertThat(QuestRules.DEFAULT.typeBonus(type, quest)).isEqualTo(expected);
+            }
+        }
+        assertThat(QuestRules.DEFAULT.baseReward(QuestType.DESTROY_RING)).isEqualTo(100);
+    }
+
+    @Test
+    void filesOnlyOverrideTheRulesTheyList() throws IOException {
+        // Given
+        Path file = rules("bonus.Dwarf.DEFEAT_ORCS=2.0", "reward.DESTROY_RING=150");
+
+        // When
+        QuestRules rules = QuestRules.load(file);
+
+        // Then
+        assertThat(rules.typeBonus(CharacterType.DWARF, QuestType.DEFEAT_ORCS)).isEqualTo(2.0);
+        assertThat(rules.typeBonus(CharacterType.DWARF, QuestType.FIND_ARTIFACT)).isEqualTo(1.6);
+        assertThat(rules.baseReward(QuestType.DESTROY_RING)).isEqualTo(150);
+        assertThat(rules.baseReward(QuestType.DEFEAT_ORCS)).isEqualTo(100);
+    }
+
+    @Test
+    void rewardsFollowTheReloadedRules() throws IOException {
+        // Given a Human fighting orcs alone: 100 x1.3
+        assertThat(QuestService.calculateReward(QuestType.DEFEAT_ORCS, "Human", 0, List.of())).isEqualTo(130);
+
+        // When
+        QuestRules.reload(rules("bonus.Human.DEFEAT_ORCS=2", "reward.DEFEAT_ORCS=200"));
+
+        // Then
+        assertThat(QuestService.calculateReward(QuestType.DEFEAT_ORCS, "Human", 0, List.of())).isEqualTo(400);
+    }
+
+    @Test
+    void invalidFilesKeepTheCurrentRules() throws IOException {
+        QuestRules current = QuestRules.reload(rules("reward.ESCORT_HOBBIT=120"));
+
+        assertThatThrownBy(() -> QuestRules.reload(rules("bonus.Orc.DEFEAT_ORCS=1.2")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown character type");
+        assertThatThrownBy(() -> QuestRules.reload(rules("reward.DEFEAT_ORCS=lots")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid reward");
+        assertThatThrownBy(() -> QuestRules.reload(rules("penalty.DEFEAT_ORCS=10")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown quest rule");
+
+        assertThat(QuestRules.current()).isSameAs(current);
+    }
+
+    @Test
+    void filesAreOnlyReloadedWhenModified() throws IOException {
+        // Given
+        Path file = rules("reward.FIND_ARTIFACT=110");
+        assertThat(QuestRules.reloadIfModified(file)).isTrue();
+        QuestRules loaded = QuestRules.current();
+
+        // When / Then
+        assertThat(QuestRules.reloadIfModified(file)).isFalse();
+        assertThat(QuestRules.current()).isSameAs(loaded);
+
+        Files.writeString(file, "reward.FIND_ARTIFACT=130");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        assertThat(QuestRules.reloadIfModified(file)).isTrue();
+        assertThat(QuestRules.current().baseReward(QuestType.FIND_ARTIFACT)).isEqualTo(130);
+    }
+
+    @Test
+    void watchedFilesAreReloadedWhenTheyChange() throws Exception {
+        // Given
+        Path file = rules("reward.ESCORT_HOBBIT=110");
+        try (QuestRules.Watcher ignored = QuestRules.watch(file)) {
+            assertThat(QuestRules.current().baseReward(QuestType.ESCORT_HOBBIT)).isEqualTo(110);
+
+            // When
+            replace(file, "reward.ESCORT_HOBBIT=140");
+
+            // Then
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (QuestRules.current().baseReward(QuestType.ESCORT_HOBBIT) != 140 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(QuestRules.current().baseReward(QuestType.ESCORT_HOBBIT)).isEqualTo(140);
+        }
+    }
+
+    @Test
+    void watchedFilesHalfWrittenInPlaceKeepThePreviousRules() throws Exception {
+        // Given
+        Path file = rules("reward.ESCORT_HOBBIT=110", "bonus.Dwarf.DEFEAT_ORCS=1.7");
+        try (QuestRules.Watcher ignored = QuestRules.watch(file)) {
+            Set<Double> dwarfBonuses = new HashSet<>();
+
+            // When the file is caught half way through an edit in place, then replaced by its next version
+            Files.writeString(file, "reward.ESCORT_HOBBIT=110\n");
+            long settled = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < settled) {
+                dwarfBonuses.add(QuestRules.current().typeBonus(CharacterType.DWARF, QuestType.DEFEAT_ORCS));
+                Thread.sleep(1);
+            }
+            replace(file, "reward.ESCORT_HOBBIT=140\nbonus.Dwarf.DEFEAT_ORCS=1.7\n");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (QuestRules.current().baseReward(QuestType.ESCORT_HOBBIT) != 140 && System.nanoTime() < deadline) {
+                dwarfBonuses.add(QuestRules.current().typeBonus(CharacterType.DWARF, QuestType.DEFEAT_ORCS));
+                Thread.sleep(1);
+            }
+
+            // Then the built-in Dwarf bonus never showed up
+            assertThat(QuestRules.current().baseReward(QuestType.ESCORT_HOBBIT)).isEqualTo(140);
+            assertThat(dwarfBonuses).containsOnly(1.7);
+        }
+    }
+
+    // Written next to the file, then moved over it
+    private static void replace(Path file, String content) throws IOException {
+        Path next = Files.writeString(file.resolveSibling(file.getFileName() + ".next"), content);
+        Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path rules(String... lines) throws IOException {
+        return Files.write(Files.createTempFile(directory, "quest-rules", ".properties"), List.of(lines));
+    }
+}
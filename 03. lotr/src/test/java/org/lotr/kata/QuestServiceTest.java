@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -144,6 +145,73 @@ class QuestServiceTest {
                 .hasMessageContaining("Inexperienced Hobbits cannot lead diplomatic missions");
     }
 
+    @Test
+    void testStartQuestById() {
+        // Given
+        MiddleEarthItem ring = new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR);
+        ((TestInventoryManager) inventoryManager).addTestItem(ring);
+        int frodo = characterService.idOf("Frodo");
+        int[] companions = {characterService.idOf("Sam")};
+
+        // When
+        QuestResult result = questService.startQuest(frodo, QuestType.DESTROY_RING, companions, List.of(ring));
+
+        // Then
+        assertThat(result.getCharacterName()).isEqualTo("Frodo");
+        assertThat(result.getCompanions()).containsExactly("Sam");
+        assertThat(questDatabase.HasStored(result)).isTrue();
+    }
+
+    @Test
+    void testStartQuestByIdCompanionNotAvailable() {
+        // Given
+        ((TestCharacterService) characterService).setCharacterAvailable("Sam", false);
+        int[] companions = {characterService.idOf("Sam")};
+
+        // When/Then
+        assertThatThrownBy(() ->
+                questService.startQuest(characterService.idOf("Frodo"), QuestType.DEFEAT_ORCS, companions, List.of())
+        ).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Companion Sam is not available");
+    }
+
+    @Test
+    void testUnknownIdsAreNotAvailable() {
+        CharacterService characters = new CharacterService();
+
+        assertThat(characters.isCharacterAvailable(-1)).isFalse();
+        assertThat(characters.isCharacterAvailable(Integer.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void testLevelsUnknownToTheRulesScoreLikeInTheOdds() {
+        // Given a service with its own name for a level
+        ((TestCharacterService) characterService).setCharacterLevel("Frodo", "Ring-bearer");
+        double chance = questService.getSuccessChance("Frodo", QuestType.FIND_ARTIFACT, List.of(), List.of());
+
+        // When the quest is rolled just below, then exactly at, the chance of success
+        QuestResult justBelow = rollingAt(chance - 1e-9).startQuest("Frodo", QuestType.FIND_ARTIFACT, List.of(), List.of());
+        QuestResult exactly = rollingAt(chance).startQuest("Frodo", QuestType.FIND_ARTIFACT, List.of(), List.of());
+
+        // Then
+        assertThat(justBelow.isSuccess()).isTrue();
+        assertThat(exactly.isSuccess()).isFalse();
+    }
+
+    private QuestService rollingAt(double roll) {
+        return new QuestService(inventoryManager, questDatabase, characterService, new RandomGenerator() {
+            @Override
+            public long nextLong() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public double nextDouble() {
+                return roll;
+            }
+        });
+    }
+
     // Test implementations for dependencies
     private static class TestInventoryManager implements InventoryManagerInterface {
         private List<MiddleEarthItem> items = new ArrayList<>();
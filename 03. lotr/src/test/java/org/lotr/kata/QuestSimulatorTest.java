@@ -0,0 +1,99 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+
+class QuestSimulatorTest {
+    private IndexedInventoryManager inventory;
+    private QuestDatabase questDatabase;
+    private CharacterService characterService;
+    private MiddleEarthItem ring;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (Class<?> singleton : List.of(QuestDatabase.class, CharacterService.class)) {
+            Field instance = singleton.getDeclaredField("instance");
+            instance.setAccessible(true);
+            instance.set(null, null);
+        }
+        questDatabase = QuestDatabase.getInstance();
+        characterService = CharacterService.getInstance();
+        inventory = new IndexedInventoryManager();
+        ring = new MiddleEarthItem("The One Ring", 1, 100, ItemOrigin.MORDOR);
+        inventory.addItem(ring);
+    }
+
+    @Test
+    void aSeedGivesTheSameResultsWhateverTheNumberOfThreads() {
+        List<QuestScenario> scenarios = List.of(
+                new QuestScenario("Frodo", QuestType.DESTROY_RING, List.of("Sam", "Gandalf"), List.of(ring)),
+                new QuestScenario("Gimli", QuestType.FIND_ARTIFACT, List.of("Legolas"), List.of()),
+                new QuestScenario("Sam", QuestType.ESCORT_HOBBIT, List.of(), List.of()));
+
+        Map<QuestScenario, QuestSimulation> alone = simulateOn(new ForkJoinPool(1), scenarios);
+        Map<QuestScenario, QuestSimulation> together = simulateOn(new ForkJoinPool(4), scenarios);
+
+        assertThat(together.keySet()).containsExactlyElementsOf(scenarios);
+        for (QuestScenario scenario : scenarios) {
+            assertThat(together.get(scenario).getSuccesses()).isEqualTo(alone.get(scenario).getSuccesses());
+            assertThat(together.get(scenario).getRewardDistribution()).isEqualTo(alone.get(scenario).getRewardDistribution());
+        }
+    }
+
+    @Test
+    void aScenarioCannotBeListedTwice() {
+        QuestScenario sam = new QuestScenario("Sam", QuestType.ESCORT_HOBBIT, List.of(), List.of());
+        QuestSimulator simulator = new QuestSimulator(inventory, questDatabase, characterService);
+
+        assertThatThrownBy(() -> simulator.simulate(List.of(sam, new QuestScenario("Sam", QuestType.ESCORT_HOBBIT, List.of(), List.of())), 10, 7))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("twice");
+    }
+
+    @Test
+    void successRateConvergesToTheQuestOdds() {
+        // Given a Veteran Human fighting orcs alone on a clear day: 0.8 base chance, x1.3, +0.05, capped at 95%
+        QuestScenario aragorn = new QuestScenario("Aragorn", QuestType.DEFEAT_ORCS, List.of(), List.of());
+
+        // When
+        QuestSimulation simulation = new QuestSimulator(inventory, questDatabase, characterService)
+                .simulate(List.of(aragorn), 200_000, 7)
+                .get(aragorn);
+
+        // Then
+        assertThat(simulation.getTrials()).isEqualTo(200_000);
+        assertThat(simulation.getSuccessRate()).isCloseTo(0.95, within(0.005));
+        // Base reward of 100, x1.3 for a Human
+        assertThat(simulation.getRewardDistribution())
+                .containsExactly(entry(0, 200_000 - simulation.getSuccesses()), entry(130, simulation.getSuccesses()));
+    }
+
+    @Test
+    void simulationsLeaveMiddleEarthUntouched() {
+        new QuestSimulator(inventory, questDatabase, characterService)
+                .simulate(List.of(new QuestScenario("Sam", QuestType.DESTROY_RING, List.of("Merry"), List.of(ring))), 50_000);
+
+        assertThat(questDatabase.getQuestCount()).isZero();
+        assertThat(inventory.findItem("The One Ring")).isPresent();
+        assertThat(characterService.getCharacterLevel("Sam")).isEqualTo("Novice");
+        assertThat(characterService.getCharacterLevel("Merry")).isEqualTo("Novice");
+    }
+
+    private Map<QuestScenario, QuestSimulation> simulateOn(ForkJoinPool pool, List<QuestScenario> scenarios) {
+        try {
+            return new QuestSimulator(inventory, questDatabase, characterService, pool).simulate(scenarios, 45_000, 42);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedItemListTest {
+    @Test
+    void behavesLikeAnArrayList() {
+        Random random = new Random(3);
+        List<MiddleEarthItem> expected = new ArrayList<>();
+        SegmentedItemList items = SegmentedItemList.EMPTY;
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || expected.isEmpty()) {
+                MiddleEarthItem item = new MiddleEarthItem("Item " + step, 1, 50, ItemOrigin.SHIRE);
+                expected.add(item);
+                items = items.with(item);
+            } else if (operation < 9) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                items = items.without(index);
+            } else {
+                List<MiddleEarthItem> degraded = expected.stream().filter(item -> random.nextInt(8) == 0).toList();
+                expected.removeAll(degraded);
+                items = items.without(degraded);
+            }
+
+            assertThat(items.size()).isEqualTo(expected.size());
+            if (step % 500 == 0) {
+                assertThat(items).containsExactlyElementsOf(expected);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertThat(items.get(i)).isSameAs(expected.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void removalsMergeSmallSegments() {
+        // Given
+        SegmentedItemList items = SegmentedItemList.EMPTY;
+        for (int i = 0; i < 100 * SegmentedItemList.SEGMENT_SIZE; i++) {
+            items = items.with(new MiddleEarthItem("Item " + i, 1, 50, ItemOrigin.SHIRE));
+        }
+        List<MiddleEarthItem> expected = new ArrayList<>(items);
+
+        // When
+        Random random = new Random(5);
+        while (items.size() > 10 * SegmentedItemList.SEGMENT_SIZE) {
+            int index = random.nextInt(items.size());
+            items = items.without(index);
+            expected.remove(index);
+        }
+
+        // Then
+        assertThat(items).containsExactlyElementsOf(expected);
+        assertThat(items.segmentCount()).isLessThanOrEqualTo(4 * 10);
+    }
+
+    @Test
+    void removingEverythingGivesAnEmptyList() {
+        SegmentedItemList items = SegmentedItemList.EMPTY;
+        for (int i = 0; i < 5_000; i++) {
+            items = items.with(new MiddleEarthItem("Item " + i, 1, 50, ItemOrigin.SHIRE));
+        }
+
+        while (!items.isEmpty()) {
+            items = items.without(items.size() / 2);
+        }
+
+        assertThat(items).isSameAs(SegmentedItemList.EMPTY);
+        assertThat(items.iterator().hasNext()).isFalse();
+    }
+}
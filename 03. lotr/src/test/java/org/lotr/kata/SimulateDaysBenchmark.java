@@ -0,0 +1,75 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+// A long campaign: processMiddleEarthDay in a loop against simulateDays, each call moving the same world on by a batch
+// of days. Items are long-lived (good Gondor gear, Mithril and The One Ring), so no item leaves and every batch
+// works on the whole inventory without rebuilding the world between calls.
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=SimulateDaysBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimulateDaysBenchmark {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "Elven Bow", "Mithril Coat", "Anduril"};
+    private static final long SEED = 42;
+
+    @Param({"10000"})
+    private int size;
+
+    @Param({"365", "3650"})
+    private int days;
+
+    private MiddleEarthManager manager;
+    private RandomGenerator random;
+    private PrintStream out;
+
+    // War and peace announcements would otherwise be timed too
+    @Setup(Level.Trial)
+    public void silenceAnnouncements() {
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // Gondor items above 80 are good and Mithril never degrades, so the world only ever moves on
+    @Setup(Level.Trial)
+    public void createWorld() {
+        manager = new MiddleEarthManager(new InventoryManager(), new QuestDatabase(), new CharacterService());
+        manager.addItemToInventory("The One Ring", 1, 100, ItemOrigin.MORDOR);
+        Random random = new Random(1);
+        for (int i = 1; i < size; i++) {
+            // Numbered, or items sharing name, origin and quality would merge into a handful
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + i;
+            ItemOrigin origin = name.contains("Mithril") ? ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)] : ItemOrigin.GONDOR;
+            manager.addItemToInventory(name, 1 + random.nextInt(10), 81 + random.nextInt(20), origin);
+        }
+        this.random = MiddleEarthManager.simulationRandom(SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreAnnouncements() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public MiddleEarthManager dayAfterDay() {
+        for (int day = 0; day < days; day++) {
+            manager.processMiddleEarthDay(random);
+        }
+        return manager;
+    }
+
+    @Benchmark
+    public MiddleEarthManager simulated() {
+        manager.simulateDays(days, SEED);
+        return manager;
+    }
+}
@@ -0,0 +1,55 @@
+package org.lotr.kata;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmarks test -DskipTests -Dbenchmark=StartQuestBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StartQuestBenchmark {
+    private static final List<String> COMPANIONS = List.of("Legolas", "Gimli", "Sam");
+
+    private QuestService questService;
+    private int aragorn;
+    private int[] companionIds;
+
+    @Setup
+    public void setUp() {
+        // Results are dropped, so that the database does not grow during the measurement
+        QuestDatabaseInterface questDatabase = new QuestDatabaseInterface() {
+            public String getCurrentWeather() {
+                return "Clear";
+            }
+
+            public void saveQuestResult(QuestResult result) {
+            }
+
+            public void setCurrentWeather(String weather) {
+            }
+
+            public String generateQuestReport() {
+                return "";
+            }
+        };
+        CharacterService characterService = CharacterService.getInstance();
+        questService = new QuestService(new IndexedInventoryManager(), questDatabase, characterService);
+        aragorn = characterService.idOf("Aragorn");
+        companionIds = COMPANIONS.stream().mapToInt(characterService::idOf).toArray();
+    }
+
+    @Benchmark
+    public QuestResult byName() {
+        return questService.startQuest("Aragorn", QuestType.DEFEAT_ORCS, COMPANIONS, List.of());
+    }
+
+    @Benchmark
+    public QuestResult byId() {
+        return questService.startQuest(aragorn, QuestType.DEFEAT_ORCS, companionIds, List.of());
+    }
+}
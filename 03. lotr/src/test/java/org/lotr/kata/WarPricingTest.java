@@ -0,0 +1,91 @@
+package org.lotr.kata;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarPricingTest {
+    private static final String[] NAMES = {"Sword", "Mithril Shirt", "cursed Dagger", "Ring of Power", "The One Ring", "Orc Blade"};
+
+    @Test
+    void warPricesMatchTheHistoricalRepricing() {
+        for (MiddleEarthItem item : randomItems()) {
+            int expected = item.p;
+            if (item.o == ItemOrigin.GONDOR) {
+                expected = (int) (item.p * 1.5);
+            } else if (item.o == ItemOrigin.ROHAN) {
+                expected = (int) (item.p * 1.3);
+            } else if (item.o == ItemOrigin.MORDOR && !item.isRing) {
+                expected = (int) (item.p * 0.5);
+            }
+
+            assertThat(WarPricing.warPrice(item)).isEqualTo(expected);
+            assertThat(WarPricing.priceOf(item, false)).isEqualTo(item.p);
+        }
+    }
+
+    @Test
+    void materializedColumnMatchesSingleReads() {
+        List<MiddleEarthItem> items = randomItems();
+
+        for (boolean warTime : new boolean[]{true, false}) {
+            int[] prices = WarPricing.materialize(items, warTime);
+
+            assertThat(prices).hasSize(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                assertThat(prices[i]).isEqualTo(WarPricing.priceOf(items.get(i), warTime));
+            }
+        }
+    }
+
+    @Test
+    void peacePricesComeBackExactlyAfterAnyNumberOfWars() {
+        // Given
+        IndexedInventoryManager inventory = new IndexedInventoryManager();
+        randomItems().forEach(inventory::addItem);
+        String peaceReport = inventory.getInventoryReport(true, true, "price");
+        int peaceValue = inventory.getTotalInventoryValue();
+
+        // When
+        for (int i = 0; i < 1_001; i++) {
+            inventory.setWarTime(!inventory.isWarTime());
+        }
+        String warReport = inventory.getInventoryReport(true, true, "price");
+        inventory.setWarTime(false);
+
+        // Then
+        assertThat(warReport).isNotEqualTo(peaceReport);
+        assertThat(inventory.getInventoryReport(true, true, "price")).isEqualTo(peaceReport);
+        assertThat(inventory.getTotalInventoryValue()).isEqualTo(peaceValue);
+    }
+
+    @Test
+    void salesAtWarAreChargedAtTheWarPrice() {
+        // Given
+        ConcurrentInventoryManager inventory = new ConcurrentInventoryManager();
+        inventory.addItem(new MiddleEarthItem("Gondorian Sword", 2, 50, ItemOrigin.GONDOR));
+        inventory.setWarTime(true);
+
+        // When
+        inventory.sellItem("Gondorian Sword", 1, false, DayOfWeek.TUESDAY);
+
+        // Then
+        assertThat(inventory.getSales("Gondorian Sword")).isEqualTo(37);
+        assertThat(inventory.findItem("Gondorian Sword")).hasValueSatisfying(sword -> assertThat(sword.p).isEqualTo(25));
+    }
+
+    private static List<MiddleEarthItem> randomItems() {
+        Random random = new Random(5);
+        List<MiddleEarthItem> items = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            items.add(new MiddleEarthItem(NAMES[random.nextInt(NAMES.length)] + " #" + i, 1 + random.nextInt(5), random.nextInt(100),
+                    ItemOrigin.values()[random.nextInt(ItemOrigin.values().length)]));
+        }
+        return items;
+    }
+}